@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Measures the time to ApplicationReadyEvent of the default startup,
+# the fast-start profile and the fast-start profile with an AppCDS
+# archive of the classes loaded during startup.
+#
+#   scripts/startup.sh [runs]    median of runs (default 5) per mode
+#   scripts/startup.sh report    slowest beans of a fast-start run
+#
+# Needs java 11+ and the database of application.properties.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+CDS=target/cds
+FAST_START="-Dspring.profiles.active=fast-start"
+
+mvn -B -q package -DskipTests
+mkdir -p "$CDS"
+# the archive needs plain jars, the repackaged boot jar nests its dependencies
+cp target/test-0.0.1-SNAPSHOT.jar.original "$CDS/app.jar"
+mvn -B -q dependency:build-classpath -Dmdep.includeScope=runtime -Dmdep.outputFile="$CDS/classpath.txt"
+CLASSPATH="$CDS/app.jar:$(cat "$CDS/classpath.txt")"
+
+start() {
+  "$JAVA" "$@" -cp "$CLASSPATH" com.demo.test.TestApplication --server.port=0 --startup.exit-on-ready=true
+}
+
+if [ "$RUNS" = "report" ]; then
+  start -Dstartup.timeline.enabled=true "$FAST_START" | grep StartupReport
+  exit
+fi
+
+# training run, then the archive of the classes it loaded
+start -XX:DumpLoadedClassList="$CDS/classes.lst" "$FAST_START" > /dev/null
+"$JAVA" -Xshare:dump -XX:SharedClassListFile="$CDS/classes.lst" -XX:SharedArchiveFile="$CDS/app.jsa" \
+  -cp "$CLASSPATH" > /dev/null
+
+measure() {
+  local name=$1
+  shift
+  local times=()
+  for ((i = 0; i < RUNS; i++)); do
+    times+=("$(start "$@" 2> /dev/null | sed -n 's/.*Ready after \([0-9]*\) ms.*/\1/p')")
+  done
+  printf '%-22s median %6d ms  runs %s\n' "$name" \
+    "$(printf '%s\n' "${times[@]}" | sort -n | sed -n "$(((RUNS + 1) / 2))p")" "${times[*]}"
+}
+
+measure default
+measure fast-start "$FAST_START"
+measure fast-start+appcds -Xshare:auto -XX:SharedArchiveFile="$CDS/app.jsa" "$FAST_START"
@@ -2,12 +2,24 @@ package com.demo.test;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.env.StandardEnvironment;
 
 @SpringBootApplication
 public class TestApplication {
 
+	/**
+	 * steps kept by the startup timeline, enough for every bean of the context
+	 */
+	static final int STARTUP_STEPS = 10000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(TestApplication.class, args);
+		SpringApplication application = new SpringApplication(TestApplication.class);
+		// a system property or an environment variable, the timeline records before the properties files are read
+		if (new StandardEnvironment().getProperty("startup.timeline.enabled", Boolean.class, false)) {
+			application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		}
+		application.run(args);
 	}
 
 }
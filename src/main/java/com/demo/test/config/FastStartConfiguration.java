@@ -0,0 +1,28 @@
+package com.demo.test.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+
+/**
+ * beans of the fast-start profile. The beans not needed to
+ * serve the user api, listed in startup.lazy-packages,
+ * are created on their first use
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfiguration {
+
+  /**
+   * static, a bean factory post processor is created
+   * before the other beans of its configuration
+   */
+  @Bean
+  public static LazyBeansPostProcessor lazyBeansPostProcessor(Environment environment) {
+    return new LazyBeansPostProcessor(Arrays.asList(environment.getRequiredProperty("startup.lazy-packages",
+        String[].class)));
+  }
+}
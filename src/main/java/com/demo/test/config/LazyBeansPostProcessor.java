@@ -0,0 +1,57 @@
+package com.demo.test.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+/**
+ * makes lazy the beans declared by the given classes or
+ * packages, they are created on first use instead of at
+ * startup. Beans with an explicit @Lazy are left as is
+ */
+public class LazyBeansPostProcessor implements BeanFactoryPostProcessor {
+
+  private final List<String> prefixes;
+
+  /**
+   * @param prefixes class names or package names ending with a dot
+   */
+  public LazyBeansPostProcessor(List<String> prefixes) {
+    this.prefixes = prefixes;
+  }
+
+  @Override
+  public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    for (String beanName : beanFactory.getBeanDefinitionNames()) {
+      BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+      if (beanDefinition instanceof AbstractBeanDefinition
+          && ((AbstractBeanDefinition) beanDefinition).getLazyInit() == null
+          && isDeclaredIn(declaringClassName(beanDefinition))) {
+        beanDefinition.setLazyInit(true);
+      }
+    }
+  }
+
+  boolean isDeclaredIn(String className) {
+    return className != null && prefixes.stream().anyMatch(className::startsWith);
+  }
+
+  /**
+   * @return class of the @Bean method declaring the bean,
+   *         else the class of the bean
+   */
+  static String declaringClassName(BeanDefinition beanDefinition) {
+    if (beanDefinition instanceof AnnotatedBeanDefinition) {
+      MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) beanDefinition).getFactoryMethodMetadata();
+      if (factoryMethod != null) {
+        return factoryMethod.getDeclaringClassName();
+      }
+    }
+    return beanDefinition.getBeanClassName();
+  }
+}
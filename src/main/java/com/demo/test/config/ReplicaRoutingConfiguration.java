@@ -0,0 +1,82 @@
+package com.demo.test.config;
+
+import com.demo.test.datasource.ReplicaRoutingDataSource;
+import com.demo.test.datasource.ReplicaSelectionPolicy;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * routes read-only transactions to the postgresql replicas of
+ * datasource.replicas.urls. Each replica gets its own pool with
+ * the settings of the primary one. The lazy proxy takes the
+ * connection on the first statement, once the transaction
+ * is known to be read-only. The pools are not beans, the
+ * datasource initializer would otherwise run on the primary
+ * while the routing datasource is being created
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration implements DisposableBean {
+
+  private final List<HikariDataSource> pools = new ArrayList<>();
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariConfig primaryPoolConfig(DataSourceProperties dataSourceProperties) {
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(dataSourceProperties.determineUrl());
+    config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+    config.setUsername(dataSourceProperties.determineUsername());
+    config.setPassword(dataSourceProperties.determinePassword());
+    return config;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariConfig primaryPoolConfig, MeterRegistry meterRegistry,
+                               @Value("${datasource.replicas.urls}") List<String> urls,
+                               @Value("${datasource.replicas.policy}") ReplicaSelectionPolicy policy,
+                               @Value("${datasource.replicas.retry-after}") Duration retryAfter) {
+    HikariDataSource primary = pool(primaryPoolConfig, meterRegistry);
+    List<DataSource> replicas = new ArrayList<>(urls.size());
+    for (int i = 0; i < urls.size(); i++) {
+      HikariConfig config = new HikariConfig();
+      primaryPoolConfig.copyStateTo(config);
+      config.setJdbcUrl(urls.get(i));
+      config.setPoolName(primaryPoolConfig.getPoolName() + "-replica-" + i);
+      config.setReadOnly(true);
+      replicas.add(pool(config, meterRegistry));
+    }
+    return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas, policy, retryAfter));
+  }
+
+  @Override
+  public void destroy() {
+    pools.forEach(HikariDataSource::close);
+  }
+
+  private HikariDataSource pool(HikariConfig config, MeterRegistry meterRegistry) {
+    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    HikariDataSource pool = new HikariDataSource(config);
+    pools.add(pool);
+    return pool;
+  }
+}
@@ -0,0 +1,47 @@
+package com.demo.test.config;
+
+import com.demo.test.model.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * caffeine regions of the hibernate second-level cache,
+ * sized and expired by user.second-level-cache. Hibernate
+ * fails to start on a region not declared here
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+  @Bean(destroyMethod = "close")
+  public CacheManager hibernateCacheManager(@Value("${user.second-level-cache.maximum-size}") long maximumSize,
+                                            @Value("${user.second-level-cache.expire-after-write}")
+                                                Duration expireAfterWrite) {
+    // one cache manager per application context, the provider is shared by the jvm
+    CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+        .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+    for (String region : new String[] {User.REGION, User.EMAIL_REGION}) {
+      CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+      configuration.setMaximumSize(OptionalLong.of(maximumSize));
+      configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+      cacheManager.createCache(region, configuration);
+    }
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+  }
+}
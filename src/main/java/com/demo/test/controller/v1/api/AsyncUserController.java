@@ -0,0 +1,154 @@
+package com.demo.test.controller.v1.api;
+
+import com.demo.test.config.Swagger2Config;
+import com.demo.test.dto.UserDto;
+import com.demo.test.logging.PayloadLogger;
+import com.demo.test.model.User;
+import com.demo.test.repository.UserSearchCriteria;
+import com.demo.test.service.async.DatabaseExecutor;
+import com.demo.test.service.user.UserImportService;
+import com.demo.test.service.user.UserService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.constraints.Min;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * user api in async mode, user.async.enabled=true. Input
+ * is checked on the request thread, database calls run on
+ * the database executor and the request thread is released
+ * until they complete. A full executor queue or a timed out
+ * call is answered with SERVICE_UNAVAILABLE
+ */
+@RestController
+@RequestMapping("/v1")
+@Api(value = Swagger2Config.TITLE, tags = {Swagger2Config.PROJECT_DESCRIPTION})
+@Validated
+@ConditionalOnProperty(name = "user.async.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AsyncUserController {
+
+  private final UserService userService;
+  private final UserImportService userImportService;
+  private final UserResponses userResponses;
+  private final PayloadLogger payloadLogger;
+  private final DatabaseExecutor databaseExecutor;
+
+  @Autowired
+  public AsyncUserController(UserService userService, UserImportService userImportService,
+                             UserResponses userResponses, PayloadLogger payloadLogger,
+                             DatabaseExecutor databaseExecutor) {
+    this.userService = userService;
+    this.userImportService = userImportService;
+    this.userResponses = userResponses;
+    this.payloadLogger = payloadLogger;
+    this.databaseExecutor = databaseExecutor;
+  }
+
+  /**
+   * registers a user in the database after
+   * performing validations on it
+   * @param userDto external input received in call
+   * @param version request parameter used for version
+   * @param request current request, for the response log
+   * @return user if registration was successful
+   */
+  @PostMapping("/register")
+  @ApiOperation(value = "Registers-a-user", notes = "Registers a user and returns the registered user.")
+  public CompletableFuture<ResponseEntity<Object>> registerUser(@RequestBody UserDto userDto,
+      @RequestParam(name = "version", required = false, defaultValue = "v1") String version,
+      HttpServletRequest request) {
+    payloadLogger.logRequest(userDto);
+    userResponses.validate(userDto);
+    User user = userService.toUser(userDto);
+
+    return databaseExecutor.submit(() -> userService.registerUser(user))
+        .thenApply(registeredUser -> logResponse(request, userResponses.registered(registeredUser)));
+  }
+
+  /**
+   * registers a batch of users in one call,
+   * with one result per user in input order
+   * @param userDtos external input received in call
+   * @param version request parameter used for version
+   * @param request current request, for the response log
+   * @return per-user registration results
+   */
+  @PostMapping("/register/batch")
+  @ApiOperation(value = "Registers-users-in-batch", notes = "Registers a batch of users and returns a result per user.")
+  public CompletableFuture<ResponseEntity<Object>> registerUsers(@RequestBody List<UserDto> userDtos,
+      @RequestParam(name = "version", required = false, defaultValue = "v1") String version,
+      HttpServletRequest request) {
+    payloadLogger.logRequest(userDtos);
+    userResponses.validateBatchSize(userDtos);
+
+    return databaseExecutor.submit(() -> userImportService.registerAll(userDtos))
+        .thenApply(results -> logResponse(request, userResponses.batchRegistered(results)));
+  }
+
+  /**
+   * retrieves a user based on input id
+   * @param id pathVariable received in request
+   * @param request current request, for the response log
+   * @return user object if found
+   */
+  @GetMapping("/users/{id}")
+  @ApiOperation(value = "Return-user-by-id", notes = "Returns a user found by the input {id}")
+  public CompletableFuture<ResponseEntity<Object>> getUser(@PathVariable(name = "id")
+      @Min(value = 0, message = "id cannot be negative") Long id, HttpServletRequest request) {
+    payloadLogger.logRequest(id);
+
+    return databaseExecutor.submit(() -> userService.getUser(id))
+        .thenApply(user -> logResponse(request, userResponses.found(id, user)));
+  }
+
+  /**
+   * searches users by keyset pagination, for the support
+   * tooling. Every filter is optional, only the summary
+   * of the users is returned
+   * @param country country, in any case
+   * @param sex male or female
+   * @param dateOfBirthFrom first date of birth, dd-MM-yyyy
+   * @param dateOfBirthTo last date of birth, dd-MM-yyyy
+   * @param enabled enabled flag
+   * @param locked locked flag
+   * @param after nextAfter of the previous page, 0 for the first page
+   * @param size maximum number of users returned
+   * @param request current request, for the response log
+   * @return page of users in id order
+   */
+  @GetMapping("/users/search")
+  @ApiOperation(value = "Search-users", notes = "Returns a page of the users matching the filters, in id order.")
+  public CompletableFuture<ResponseEntity<Object>> searchUsers(@RequestParam(name = "country", required = false) String country,
+      @RequestParam(name = "sex", required = false) String sex,
+      @RequestParam(name = "dateOfBirthFrom", required = false) String dateOfBirthFrom,
+      @RequestParam(name = "dateOfBirthTo", required = false) String dateOfBirthTo,
+      @RequestParam(name = "enabled", required = false) Boolean enabled,
+      @RequestParam(name = "locked", required = false) Boolean locked,
+      @RequestParam(name = "after", defaultValue = "0") @Min(value = 0, message = "after cannot be negative") long after,
+      @RequestParam(name = "size", defaultValue = "${user.search.page-size}") int size,
+      HttpServletRequest request) {
+    UserSearchCriteria criteria = userResponses.searchCriteria(country, sex, dateOfBirthFrom, dateOfBirthTo, enabled,
+        locked);
+    userResponses.validatePageSize(size);
+    payloadLogger.logRequest(criteria);
+
+    return databaseExecutor.submit(() -> userService.searchUsers(criteria, after, size))
+        .thenApply(users -> logResponse(request, userResponses.searched(users, size)));
+  }
+
+  // runs on the executor thread, the request is passed explicitly
+  private ResponseEntity<Object> logResponse(HttpServletRequest request, ResponseEntity<Object> responseEntity) {
+    payloadLogger.logResponse(request, responseEntity);
+    return responseEntity;
+  }
+}
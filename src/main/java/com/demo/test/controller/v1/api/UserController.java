@@ -1,50 +1,52 @@
 package com.demo.test.controller.v1.api;
 
 import com.demo.test.config.Swagger2Config;
-import com.demo.test.dto.ApiSuccessDto;
 import com.demo.test.dto.UserDto;
-import com.demo.test.exceptions.Errors;
-import com.demo.test.exceptions.UserExceptions;
+import com.demo.test.logging.PayloadLogger;
 import com.demo.test.model.User;
-import com.demo.test.service.mapper.Mapper;
+import com.demo.test.repository.UserSearchCriteria;
+import com.demo.test.repository.UserSummary;
+import com.demo.test.service.user.RegistrationResult;
+import com.demo.test.service.user.UserImportService;
 import com.demo.test.service.user.UserService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
 import javax.validation.constraints.Min;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 
 /**
- * main controller receives input calls
+ * main controller receives input calls. Blocks
+ * the request thread while the database is called,
+ * replaced by AsyncUserController in async mode
  */
 @RestController
 @RequestMapping("/v1")
 @Api(value = Swagger2Config.TITLE, tags = {Swagger2Config.PROJECT_DESCRIPTION})
 @Validated
+@ConditionalOnProperty(name = "user.async.enabled", havingValue = "false", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
 
-  private static final Logger logger = LogManager.getLogger(UserController.class);
-
-  private final DateTimeFormatter dateTimeFormatter;
   private final UserService userService;
-  private final Mapper mapper;
+  private final UserImportService userImportService;
+  private final UserResponses userResponses;
+  private final PayloadLogger payloadLogger;
 
   @Autowired
-  public UserController(UserService userService, @Value("${date.output.format}") String dateTimeFormat, Mapper mapper) {
+  public UserController(UserService userService, UserImportService userImportService, UserResponses userResponses,
+                        PayloadLogger payloadLogger) {
     this.userService = userService;
-    dateTimeFormatter = DateTimeFormatter.ofPattern(dateTimeFormat);
-    this.mapper = mapper;
+    this.userImportService = userImportService;
+    this.userResponses = userResponses;
+    this.payloadLogger = payloadLogger;
   }
 
 
@@ -58,23 +60,40 @@ public class UserController {
    */
   @PostMapping("/register")
   @ApiOperation(value = "Registers-a-user", notes = "Registers a user and returns the registered user.")
-  public ResponseEntity<Object> registerUser(@RequestBody @Valid UserDto userDto, @RequestParam(name = "version",
+  public ResponseEntity<Object> registerUser(@RequestBody UserDto userDto, @RequestParam(name = "version",
       required = false, defaultValue="v1") String version ) {
-    logger.info("Input received: ", String.format("%s. Version [%s]", userDto.toString(), version));
+    payloadLogger.logRequest(userDto);
+    userResponses.validate(userDto);
 
     User user = userService.toUser(userDto);
     User registeredUser = userService.registerUser(user);
 
-    if (registeredUser != null) {
-      ApiSuccessDto apiSuccessDto = ApiSuccessDto.builder().object(mapper.toUserDto(registeredUser))
-          .timeStamp(LocalDateTime.now().format(dateTimeFormatter)).status(HttpStatus.CREATED)
-          .resourceUri("/v1/users/" + registeredUser.getId()).build();
-      ResponseEntity<Object> responseEntity= ResponseEntity.status(HttpStatus.CREATED).body(apiSuccessDto);
-      logger.info(String.format("Output: %s", responseEntity));
-      return responseEntity;
-    } else {
-      throw new UserExceptions.InternalServerException("User registration failed.", Errors.USER_REGISTRATION_FAILED);
-    }
+    ResponseEntity<Object> responseEntity = userResponses.registered(registeredUser);
+    payloadLogger.logResponse(responseEntity);
+    return responseEntity;
+  }
+
+  /**
+   * registers a batch of users in one call. Each user
+   * is validated and registered independently, the
+   * response holds one result per user in input order.
+   * Returns CREATED if all users were registered,
+   * MULTI_STATUS otherwise
+   * @param userDtos external input received in call
+   * @param version request parameter used for version
+   * @return per-user registration results
+   */
+  @PostMapping("/register/batch")
+  @ApiOperation(value = "Registers-users-in-batch", notes = "Registers a batch of users and returns a result per user.")
+  public ResponseEntity<Object> registerUsers(@RequestBody List<UserDto> userDtos, @RequestParam(name = "version",
+      required = false, defaultValue="v1") String version) {
+    payloadLogger.logRequest(userDtos);
+    userResponses.validateBatchSize(userDtos);
+
+    List<RegistrationResult> results = userImportService.registerAll(userDtos);
+    ResponseEntity<Object> responseEntity = userResponses.batchRegistered(results);
+    payloadLogger.logResponse(responseEntity);
+    return responseEntity;
   }
 
   /**
@@ -87,18 +106,46 @@ public class UserController {
   @GetMapping("/users/{id}")
   @ApiOperation(value = "Return-user-by-id", notes = "Returns a user found by the input {id}")
   public ResponseEntity<Object> getUser( @PathVariable(name = "id") @Min(value = 0, message = "id cannot be negative") Long id) {
-
-    logger.info(String.format("Id received at users/{id}: %d", id));
+    payloadLogger.logRequest(id);
     Optional<User> user = userService.getUser(id);
-    if (user.isPresent()) {
-      ApiSuccessDto apiSuccessDto = ApiSuccessDto.builder().object(mapper.toUserDto(user.get()))
-          .timeStamp(LocalDateTime.now().format(dateTimeFormatter)).status(HttpStatus.OK)
-          .resourceUri("/v1/users/" + user.get().getId()).build();
-      ResponseEntity<Object> responseEntity= ResponseEntity.ok(apiSuccessDto);
-      logger.info(String.format("Output: %s", responseEntity));
-      return responseEntity;
-    } else {
-      throw new UserExceptions.BadRequestException("User with id [" + id + "] does not exists", Errors.USER_DOEST_EXISTS);
-    }
+
+    ResponseEntity<Object> responseEntity = userResponses.found(id, user);
+    payloadLogger.logResponse(responseEntity);
+    return responseEntity;
+  }
+
+  /**
+   * searches users by keyset pagination, for the support
+   * tooling. Every filter is optional, only the summary
+   * of the users is returned
+   * @param country country, in any case
+   * @param sex male or female
+   * @param dateOfBirthFrom first date of birth, dd-MM-yyyy
+   * @param dateOfBirthTo last date of birth, dd-MM-yyyy
+   * @param enabled enabled flag
+   * @param locked locked flag
+   * @param after nextAfter of the previous page, 0 for the first page
+   * @param size maximum number of users returned
+   * @return page of users in id order
+   */
+  @GetMapping("/users/search")
+  @ApiOperation(value = "Search-users", notes = "Returns a page of the users matching the filters, in id order.")
+  public ResponseEntity<Object> searchUsers(@RequestParam(name = "country", required = false) String country,
+      @RequestParam(name = "sex", required = false) String sex,
+      @RequestParam(name = "dateOfBirthFrom", required = false) String dateOfBirthFrom,
+      @RequestParam(name = "dateOfBirthTo", required = false) String dateOfBirthTo,
+      @RequestParam(name = "enabled", required = false) Boolean enabled,
+      @RequestParam(name = "locked", required = false) Boolean locked,
+      @RequestParam(name = "after", defaultValue = "0") @Min(value = 0, message = "after cannot be negative") long after,
+      @RequestParam(name = "size", defaultValue = "${user.search.page-size}") int size) {
+    UserSearchCriteria criteria = userResponses.searchCriteria(country, sex, dateOfBirthFrom, dateOfBirthTo, enabled,
+        locked);
+    userResponses.validatePageSize(size);
+    payloadLogger.logRequest(criteria);
+    List<UserSummary> users = userService.searchUsers(criteria, after, size);
+
+    ResponseEntity<Object> responseEntity = userResponses.searched(users, size);
+    payloadLogger.logResponse(responseEntity);
+    return responseEntity;
   }
 }
@@ -0,0 +1,191 @@
+package com.demo.test.controller.v1.api;
+
+import com.demo.test.dto.ApiSuccessDto;
+import com.demo.test.dto.RegistrationResultDto;
+import com.demo.test.dto.UserDto;
+import com.demo.test.dto.UserSearchPageDto;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.exceptions.UserExceptions;
+import com.demo.test.model.Sex;
+import com.demo.test.model.User;
+import com.demo.test.repository.UserSearchCriteria;
+import com.demo.test.repository.UserSummary;
+import com.demo.test.service.mapper.Mapper;
+import com.demo.test.service.timestamp.TimestampService;
+import com.demo.test.service.user.RegistrationResult;
+import com.demo.test.service.validation.UserDtoValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * input checks and responses of the user api,
+ * shared by the blocking and the async controller
+ */
+@Component
+public class UserResponses {
+
+  private final TimestampService timestampService;
+  private final Mapper mapper;
+  private final UserDtoValidator userDtoValidator;
+  private final int batchMaxSize;
+  private final int searchMaxPageSize;
+
+  @Autowired
+  public UserResponses(TimestampService timestampService, Mapper mapper, UserDtoValidator userDtoValidator,
+                       @Value("${user.batch.max-size}") int batchMaxSize,
+                       @Value("${user.search.max-page-size}") int searchMaxPageSize) {
+    this.timestampService = timestampService;
+    this.mapper = mapper;
+    this.userDtoValidator = userDtoValidator;
+    this.batchMaxSize = batchMaxSize;
+    this.searchMaxPageSize = searchMaxPageSize;
+  }
+
+  /**
+   * @param userDto external input
+   * @throws UserExceptions.InvalidBodyException if the dto is invalid
+   */
+  public void validate(UserDto userDto) {
+    Set<ConstraintViolation<UserDto>> violations = userDtoValidator.validate(userDto);
+    if (!violations.isEmpty()) {
+      throw new UserExceptions.InvalidBodyException(violations);
+    }
+  }
+
+  /**
+   * @param userDtos external input
+   * @throws UserExceptions.BadRequestException if the batch
+   *         is empty or larger than user.batch.max-size
+   */
+  public void validateBatchSize(List<UserDto> userDtos) {
+    if (userDtos.isEmpty() || userDtos.size() > batchMaxSize) {
+      throw new UserExceptions.BadRequestException("Batch must contain between 1 and " + batchMaxSize + " users.",
+          Errors.CONSTRAINT_VIOLATION);
+    }
+  }
+
+  /**
+   * @param country country, in any case
+   * @param sex male or female, in any case
+   * @param dateOfBirthFrom first date of birth of the date.input.format pattern
+   * @param dateOfBirthTo last date of birth of the date.input.format pattern
+   * @param enabled enabled flag
+   * @param locked locked flag
+   * @return criteria of the search, null inputs match every user
+   * @throws UserExceptions.BadRequestException if the sex
+   *         or a date of birth is invalid
+   */
+  public UserSearchCriteria searchCriteria(String country, String sex, String dateOfBirthFrom, String dateOfBirthTo,
+                                           Boolean enabled, Boolean locked) {
+    return UserSearchCriteria.builder().country(country).sex(sex != null ? toSex(sex) : null)
+        .dateOfBirthFrom(dateOfBirthFrom != null ? mapper.getDateOfBirth(dateOfBirthFrom) : null)
+        .dateOfBirthTo(dateOfBirthTo != null ? mapper.getDateOfBirth(dateOfBirthTo) : null)
+        .enabled(enabled).locked(locked).build();
+  }
+
+  /**
+   * @param size requested page size
+   * @throws UserExceptions.BadRequestException if the size is
+   *         not between 1 and user.search.max-page-size
+   */
+  public void validatePageSize(int size) {
+    if (size < 1 || size > searchMaxPageSize) {
+      throw new UserExceptions.BadRequestException("Page size must be between 1 and " + searchMaxPageSize + ".",
+          Errors.CONSTRAINT_VIOLATION);
+    }
+  }
+
+  /**
+   * @param users page of users found
+   * @param size requested page size
+   * @return OK response of the page, with the id to continue
+   *         from when the page is full
+   */
+  public ResponseEntity<Object> searched(List<UserSummary> users, int size) {
+    UserSearchPageDto page = UserSearchPageDto.builder()
+        .users(users.stream().map(mapper::toUserSummaryDto).collect(Collectors.toList()))
+        .nextAfter(users.size() == size ? users.get(size - 1).getId() : null).build();
+    ApiSuccessDto apiSuccessDto = ApiSuccessDto.builder().object(page)
+        .timeStamp(timestampService.now()).status(HttpStatus.OK)
+        .resourceUri("/v1/users/search").build();
+    return ResponseEntity.ok(apiSuccessDto);
+  }
+
+  /**
+   * @param registeredUser user returned by the registration
+   * @return CREATED response of the user
+   */
+  public ResponseEntity<Object> registered(User registeredUser) {
+    if (registeredUser == null) {
+      throw new UserExceptions.InternalServerException("User registration failed.", Errors.USER_REGISTRATION_FAILED);
+    }
+    ApiSuccessDto apiSuccessDto = ApiSuccessDto.builder().object(mapper.toUserDto(registeredUser))
+        .timeStamp(timestampService.now()).status(HttpStatus.CREATED)
+        .resourceUri("/v1/users/" + registeredUser.getId()).build();
+    return ResponseEntity.status(HttpStatus.CREATED).body(apiSuccessDto);
+  }
+
+  /**
+   * @param results per-user registration results
+   * @return CREATED response if all users were
+   *         registered, MULTI_STATUS otherwise
+   */
+  public ResponseEntity<Object> batchRegistered(List<RegistrationResult> results) {
+    List<RegistrationResultDto> resultDtos = new ArrayList<>(results.size());
+    boolean allRegistered = true;
+    for (int i = 0; i < results.size(); i++) {
+      allRegistered &= results.get(i).isRegistered();
+      resultDtos.add(toRegistrationResultDto(i, results.get(i)));
+    }
+    HttpStatus status = allRegistered ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+    ApiSuccessDto apiSuccessDto = ApiSuccessDto.builder().object(resultDtos)
+        .timeStamp(timestampService.now()).status(status)
+        .resourceUri("/v1/register/batch").build();
+    return ResponseEntity.status(status).body(apiSuccessDto);
+  }
+
+  /**
+   * @param id requested id
+   * @param user user found by id
+   * @return OK response of the user
+   */
+  public ResponseEntity<Object> found(long id, Optional<User> user) {
+    if (!user.isPresent()) {
+      throw new UserExceptions.BadRequestException("User with id [" + id + "] does not exists", Errors.USER_DOEST_EXISTS);
+    }
+    ApiSuccessDto apiSuccessDto = ApiSuccessDto.builder().object(mapper.toUserDto(user.get()))
+        .timeStamp(timestampService.now()).status(HttpStatus.OK)
+        .resourceUri("/v1/users/" + user.get().getId()).build();
+    return ResponseEntity.ok(apiSuccessDto);
+  }
+
+  private static Sex toSex(String sex) {
+    try {
+      return Sex.valueOf(sex.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException illegalArgumentException) {
+      throw new UserExceptions.BadRequestException("Invalid sex [" + sex + "]. Allowed values are male and female.",
+          Errors.CONSTRAINT_VIOLATION);
+    }
+  }
+
+  private RegistrationResultDto toRegistrationResultDto(int index, RegistrationResult result) {
+    if (result.isRegistered()) {
+      return RegistrationResultDto.builder().index(index).status(HttpStatus.CREATED)
+          .object(mapper.toUserDto(result.getUser())).resourceUri("/v1/users/" + result.getUser().getId()).build();
+    }
+    return RegistrationResultDto.builder().index(index).status(HttpStatus.BAD_REQUEST)
+        .errorNumber(result.getInternalError()).messages(Collections.singletonList(result.getMessage())).build();
+  }
+}
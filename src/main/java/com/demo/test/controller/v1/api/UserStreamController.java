@@ -0,0 +1,81 @@
+package com.demo.test.controller.v1.api;
+
+import com.demo.test.config.Swagger2Config;
+import com.demo.test.service.user.UserExportService;
+import com.demo.test.service.user.UserImportService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * streams users in and out as newline delimited
+ * json. Used by both the blocking and async modes,
+ * a stream holds its request thread while it runs
+ */
+@RestController
+@RequestMapping("/v1")
+@Api(value = Swagger2Config.TITLE, tags = {Swagger2Config.PROJECT_DESCRIPTION})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserStreamController {
+
+  private static final Logger logger = LogManager.getLogger(UserStreamController.class);
+  private static final String NDJSON = "application/x-ndjson";
+
+  private final UserImportService userImportService;
+  private final UserExportService userExportService;
+
+  @Autowired
+  public UserStreamController(UserImportService userImportService, UserExportService userExportService) {
+    this.userImportService = userImportService;
+    this.userExportService = userExportService;
+  }
+
+  /**
+   * imports users from newline delimited json without
+   * buffering the payload. Users are committed in chunks,
+   * rejected lines and progress are streamed back as
+   * newline delimited json while the import runs
+   * @param request carries the ndjson body
+   * @param response receives the ndjson results
+   * @throws IOException if body cannot be read or written
+   */
+  @PostMapping(value = "/register/import", consumes = NDJSON)
+  @ApiOperation(value = "Imports-users", notes = "Registers users streamed as newline delimited json.")
+  public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    logger.info("Streaming import started");
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(NDJSON);
+    userImportService.importUsers(request.getInputStream(), response.getOutputStream());
+  }
+
+  /**
+   * exports all the users. Users are read by keyset
+   * pagination and written page by page, as a json
+   * array or as newline delimited json when the client
+   * accepts application/x-ndjson
+   * @param accept accept header of the request
+   * @param response receives the exported users
+   * @throws IOException if response cannot be written
+   */
+  @GetMapping(value = "/users", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+  @ApiOperation(value = "Export-users", notes = "Streams all the users as json or newline delimited json.")
+  public void exportUsers(@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+                          HttpServletResponse response) throws IOException {
+    boolean ndjson = accept != null && accept.contains(NDJSON);
+    logger.info("Export started. Ndjson [{}]", ndjson);
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON_VALUE);
+    userExportService.exportUsers(response.getOutputStream(), ndjson);
+  }
+}
@@ -0,0 +1,38 @@
+package com.demo.test.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * routing hints of the current thread, read by
+ * ReplicaRoutingDataSource when a connection is taken
+ */
+public final class DataSourceRouting {
+
+  private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+  private DataSourceRouting() { }
+
+  /**
+   * runs the call with read-only transactions routed
+   * to the primary, e.g. to read a row just written
+   * @param call database call
+   * @return result of the call
+   */
+  public static <T> T onPrimary(Supplier<T> call) {
+    Boolean previous = PRIMARY_FORCED.get();
+    PRIMARY_FORCED.set(Boolean.TRUE);
+    try {
+      return call.get();
+    } finally {
+      if (previous == null) {
+        PRIMARY_FORCED.remove();
+      } else {
+        PRIMARY_FORCED.set(previous);
+      }
+    }
+  }
+
+  public static boolean isPrimaryForced() {
+    return PRIMARY_FORCED.get() != null;
+  }
+}
@@ -0,0 +1,59 @@
+package com.demo.test.datasource;
+
+import com.demo.test.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * users written by this instance in the last
+ * datasource.replicas.read-your-writes. Their reads
+ * go to the primary, a replica may not have them yet
+ */
+@Component
+public class RecentWrites {
+
+  private final Cache<Object, Boolean> keys;
+
+  @Autowired
+  public RecentWrites(@Value("${datasource.replicas.read-your-writes}") Duration readYourWrites) {
+    keys = Caffeine.newBuilder().expireAfterWrite(readYourWrites).build();
+  }
+
+  /**
+   * records the user once the current transaction commits,
+   * the window starts when the write becomes visible
+   * @param user user being persisted
+   */
+  public void recordAfterCommit(User user) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      record(user);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        record(user);
+      }
+    });
+  }
+
+  public boolean containsId(long id) {
+    return keys.getIfPresent(id) != null;
+  }
+
+  public boolean containsEmail(String email) {
+    return keys.getIfPresent(User.normalizeEmail(email)) != null;
+  }
+
+  private void record(User user) {
+    keys.put(user.getId(), Boolean.TRUE);
+    keys.put(User.normalizeEmail(user.getEmail()), Boolean.TRUE);
+  }
+}
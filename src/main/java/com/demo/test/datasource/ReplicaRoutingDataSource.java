@@ -0,0 +1,89 @@
+package com.demo.test.datasource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * sends the connections of read-only transactions to the
+ * replicas and all others to the primary. A replica that
+ * fails to give a connection is skipped for retryAfter,
+ * when no replica answers the primary is used. Must be
+ * wrapped in a LazyConnectionDataSourceProxy so the connection
+ * is taken once the transaction is marked read-only
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+  private static final Logger logger = LogManager.getLogger(ReplicaRoutingDataSource.class);
+
+  private final DataSource primary;
+  private final List<DataSource> replicas;
+  private final ReplicaSelectionPolicy policy;
+  private final long retryAfterNanos;
+  private final AtomicInteger next = new AtomicInteger();
+  /**
+   * per replica, System.nanoTime until which it is skipped, 0 if available
+   */
+  private final AtomicLongArray downUntil;
+
+  public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaSelectionPolicy policy,
+                                  Duration retryAfter) {
+    this.primary = primary;
+    this.replicas = replicas;
+    this.policy = policy;
+    this.retryAfterNanos = retryAfter.toNanos();
+    downUntil = new AtomicLongArray(replicas.size());
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (!isReplicaRead()) {
+      return primary.getConnection();
+    }
+    int first = first();
+    for (int i = 0; i < replicas.size(); i++) {
+      int replica = (first + i) % replicas.size();
+      if (isAvailable(replica)) {
+        try {
+          return replicas.get(replica).getConnection();
+        } catch (SQLException sqlException) {
+          downUntil.set(replica, System.nanoTime() + retryAfterNanos);
+          logger.warn("Replica " + replica + " skipped after failing to give a connection", sqlException);
+        }
+      }
+    }
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return getConnection();
+  }
+
+  private boolean isReplicaRead() {
+    return !replicas.isEmpty() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        && !DataSourceRouting.isPrimaryForced();
+  }
+
+  private int first() {
+    if (policy == ReplicaSelectionPolicy.RANDOM) {
+      return ThreadLocalRandom.current().nextInt(replicas.size());
+    }
+    return Math.floorMod(next.getAndIncrement(), replicas.size());
+  }
+
+  private boolean isAvailable(int replica) {
+    long until = downUntil.get(replica);
+    return until == 0 || System.nanoTime() - until >= 0;
+  }
+}
@@ -0,0 +1,8 @@
+package com.demo.test.datasource;
+
+/**
+ * how a read-only transaction picks a replica
+ */
+public enum ReplicaSelectionPolicy {
+  ROUND_ROBIN, RANDOM
+}
@@ -0,0 +1,21 @@
+package com.demo.test.dto;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * progress of a streaming import, written
+ * after each committed chunk and at the end
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@ToString
+public class ImportProgressDto {
+  private long lines;
+  private long registered;
+  private long rejected;
+  private boolean completed;
+}
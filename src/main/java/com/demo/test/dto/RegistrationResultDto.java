@@ -0,0 +1,30 @@
+package com.demo.test.dto;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+/**
+ * customized response object for one
+ * user of a batch registration
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@ToString
+public class RegistrationResultDto {
+  /**
+   * position of the user in the received
+   * batch, or its line number in an import
+   */
+  private long index;
+  private HttpStatus status;
+  private int errorNumber;
+  private List<String> messages;
+  private String resourceUri;
+  private Object object;
+}
@@ -0,0 +1,25 @@
+package com.demo.test.dto;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * page of a user search. The next page is
+ * requested with after set to nextAfter
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@ToString
+public class UserSearchPageDto {
+  private List<UserSummaryDto> users;
+  /**
+   * id of the last user of a full page,
+   * null when there is no next page
+   */
+  private Long nextAfter;
+}
@@ -0,0 +1,26 @@
+package com.demo.test.dto;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * user returned by a search, without
+ * its password and phone number
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@ToString
+public class UserSummaryDto {
+  private long id;
+  private String firstName;
+  private String lastName;
+  private String email;
+  private String dateOfBirth;
+  private String sex;
+  private String country;
+  private boolean enabled;
+  private boolean locked;
+}
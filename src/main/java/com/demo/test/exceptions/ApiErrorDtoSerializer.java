@@ -0,0 +1,94 @@
+package com.demo.test.exceptions;
+
+import com.demo.test.dto.ApiErrorDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * writes error responses with the same json as the
+ * default serializer. The status and error number are
+ * fixed for an error code, they are serialized once per
+ * code and written as a raw template, only the timestamp
+ * and messages are serialized on every response. Field
+ * names and order are fixed: global naming or inclusion
+ * settings of jackson do not apply, ApiErrorDtoSerializerTest
+ * fails if the application sets one
+ */
+@JsonComponent
+public class ApiErrorDtoSerializer extends StdSerializer<ApiErrorDto> {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final SerializedString TIME_STAMP = new SerializedString("timeStamp");
+  private static final SerializedString MESSAGES = new SerializedString("messages");
+  private static final SerializedString DEBUG_MESSAGE = new SerializedString("debugMessage");
+
+  private final ConcurrentMap<Long, String> templates = new ConcurrentHashMap<>();
+
+  public ApiErrorDtoSerializer() {
+    super(ApiErrorDto.class);
+  }
+
+  @Override
+  public void serialize(ApiErrorDto apiErrorDto, JsonGenerator generator, SerializerProvider provider)
+      throws IOException {
+    generator.writeStartObject(apiErrorDto);
+    if (generator.getPrettyPrinter() != null) {
+      // the raw template has no indentation
+      writeCodeFields(apiErrorDto, generator, provider);
+    } else {
+      // ends with a comma, the generator writes the next field as the first one
+      generator.writeRaw(template(apiErrorDto, provider));
+    }
+    generator.writeFieldName(TIME_STAMP);
+    generator.writeString(apiErrorDto.getTimeStamp());
+    generator.writeFieldName(MESSAGES);
+    List<String> messages = apiErrorDto.getMessages();
+    if (messages == null) {
+      generator.writeNull();
+    } else {
+      generator.writeStartArray(messages.size());
+      for (String message : messages) {
+        generator.writeString(message);
+      }
+      generator.writeEndArray();
+    }
+    generator.writeFieldName(DEBUG_MESSAGE);
+    generator.writeString(apiErrorDto.getDebugMessage());
+    generator.writeEndObject();
+  }
+
+  private String template(ApiErrorDto apiErrorDto, SerializerProvider provider) throws IOException {
+    int status = apiErrorDto.getStatus() != null ? apiErrorDto.getStatus().value() : 0;
+    long key = ((long) status << 32) | (apiErrorDto.getErrorNumber() & 0xffffffffL);
+    String template = templates.get(key);
+    if (template == null) {
+      StringWriter writer = new StringWriter();
+      try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+        generator.writeStartObject();
+        writeCodeFields(apiErrorDto, generator, provider);
+        generator.writeEndObject();
+      }
+      String object = writer.toString();
+      template = object.substring(1, object.length() - 1) + ",";
+      templates.putIfAbsent(key, template);
+    }
+    return template;
+  }
+
+  private static void writeCodeFields(ApiErrorDto apiErrorDto, JsonGenerator generator, SerializerProvider provider)
+      throws IOException {
+    generator.writeFieldName("status");
+    provider.defaultSerializeValue(apiErrorDto.getStatus(), generator);
+    generator.writeNumberField("errorNumber", apiErrorDto.getErrorNumber());
+  }
+}
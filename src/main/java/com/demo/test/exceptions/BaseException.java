@@ -1,12 +1,30 @@
 package com.demo.test.exceptions;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+/**
+ * base of the business exceptions. They are expected
+ * errors thrown on every invalid request and mapped to
+ * a response, so by default they do not capture a stack
+ * trace, which is most of the cost of throwing them
+ */
 @Getter
-@AllArgsConstructor
 public abstract class BaseException extends RuntimeException{
 
-  private String message;
-  private int internalError;
+  private final String message;
+  private final int internalError;
+
+  protected BaseException(String message, int internalError) {
+    this(message, internalError, false);
+  }
+
+  /**
+   * @param writableStackTrace true to capture the stack
+   *                           trace, for unexpected errors
+   */
+  protected BaseException(String message, int internalError, boolean writableStackTrace) {
+    super(message, null, false, writableStackTrace);
+    this.message = message;
+    this.internalError = internalError;
+  }
 }
@@ -10,6 +10,10 @@ public class Errors {
   public static final int USER_REGISTRATION_FAILED = 513;
   public static final int UNKNOWN_INTERNAL_SERVER_ERROR = 517;
 
+  // service unavailable errors
+  public static final int DATABASE_EXECUTOR_SATURATED = 521;
+  public static final int DATABASE_CALL_TIMEOUT = 523;
+
   // bad request internal errors
   public static final int USER_ALREADY_EXISTS = 453;
   public static final int CONSTRAINT_VIOLATION = 457;
@@ -17,4 +21,5 @@ public class Errors {
   public static final int UNDER_AGE = 461;
   public static final int UNKNOWN_BAD_REQUEST = 463;
   public static final int INPUT_DATE_FORMAT = 465;
+  public static final int LINE_TOO_LONG = 467;
 }
@@ -1,8 +1,10 @@
 package com.demo.test.exceptions;
 
 import com.demo.test.dto.ApiErrorDto;
+import com.demo.test.logging.PayloadLogger;
+import com.demo.test.service.timestamp.TimestampService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -17,24 +19,28 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
  * global exception handler
  */
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
+  private static final String RETRY_AFTER_SECONDS = "1";
 
-  private final DateTimeFormatter dateTimeFormatter;
+  private final TimestampService timestampService;
+  private final PayloadLogger payloadLogger;
 
   @Autowired
-  public RestExceptionHandler(@Value("${date.output.format}") final String dateTimeFormat) {
-    dateTimeFormatter = DateTimeFormatter.ofPattern(dateTimeFormat);
+  public RestExceptionHandler(TimestampService timestampService, PayloadLogger payloadLogger) {
+    this.timestampService = timestampService;
+    this.payloadLogger = payloadLogger;
   }
 
 
@@ -51,10 +57,10 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     List<String> errors = new ArrayList<>();
     errors.add(badRequestException.getMessage());
     ApiErrorDto apiErrorDto = ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST)
-        .errorNumber(badRequestException.getInternalError()).timeStamp(LocalDateTime.now().format(dateTimeFormatter))
+        .errorNumber(badRequestException.getInternalError()).timeStamp(timestampService.now())
         .messages(errors).debugMessage(badRequestException.getLocalizedMessage()).build();
     ResponseEntity<Object> responseEntity = new ResponseEntity<>(apiErrorDto, HttpStatus.BAD_REQUEST);
-    logger.error("Output: " + responseEntity);
+    payloadLogger.logResponse(responseEntity);
     return responseEntity;
   }
 
@@ -71,10 +77,28 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     List<String> errorMessages = constraintViolationException.getConstraintViolations().stream()
         .map(ConstraintViolation::getMessage).collect(Collectors.toList());
     ApiErrorDto apiErrorDto = ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST)
-        .errorNumber(Errors.CONSTRAINT_VIOLATION).timeStamp(LocalDateTime.now().format(dateTimeFormatter))
+        .errorNumber(Errors.CONSTRAINT_VIOLATION).timeStamp(timestampService.now())
         .messages(errorMessages).debugMessage(constraintViolationException.getLocalizedMessage()).build();
     ResponseEntity<Object> responseEntity = new ResponseEntity<>(apiErrorDto, HttpStatus.BAD_REQUEST);
-    logger.error("Output: " + responseEntity);
+    payloadLogger.logResponse(responseEntity);
+    return responseEntity;
+  }
+
+  /**
+   * handles the constraint violations of a request body,
+   * with the same response as an invalid @Valid argument
+   * @param invalidBodyException violations of the body
+   * @return
+   */
+  @ExceptionHandler(value = UserExceptions.InvalidBodyException.class)
+  public ResponseEntity<Object> handleInvalidBodyException(UserExceptions.InvalidBodyException invalidBodyException) {
+    List<String> errors = invalidBodyException.getConstraintViolations().stream()
+        .map(ConstraintViolation::getMessage).collect(Collectors.toList());
+    ApiErrorDto apiErrorDto = ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST)
+        .errorNumber(Errors.CONSTRAINT_VIOLATION).timeStamp(timestampService.now())
+        .messages(errors).build();
+    ResponseEntity<Object> responseEntity = new ResponseEntity<>(apiErrorDto, HttpStatus.BAD_REQUEST);
+    payloadLogger.logResponse(responseEntity);
     return responseEntity;
   }
 
@@ -95,10 +119,37 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     List<String> errors = ex.getBindingResult().getFieldErrors().stream()
         .map(DefaultMessageSourceResolvable::getDefaultMessage).collect(Collectors.toList());
     ApiErrorDto apiErrorDto = ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST)
-        .errorNumber(Errors.CONSTRAINT_VIOLATION).timeStamp(LocalDateTime.now().format(dateTimeFormatter))
+        .errorNumber(Errors.CONSTRAINT_VIOLATION).timeStamp(timestampService.now())
         .messages(errors).build();
     ResponseEntity<Object> responseEntity = new ResponseEntity<>(apiErrorDto, HttpStatus.BAD_REQUEST);
-    logger.error("Output: " + responseEntity);
+    payloadLogger.logResponse(responseEntity);
+    return responseEntity;
+  }
+
+  /**
+   * handles database calls that were rejected by a full
+   * executor queue or did not complete in time, the
+   * client is asked to retry after retry-after seconds
+   * @param ex rejection or timeout of the database call
+   * @return
+   */
+  @ExceptionHandler(value = {RejectedExecutionException.class, TimeoutException.class})
+  public ResponseEntity<Object> handleDatabaseUnavailable(Exception ex) {
+    List<String> errorMessages = new ArrayList<>();
+    int errorNumber;
+    if (ex instanceof TimeoutException) {
+      errorMessages.add("Request timed out");
+      errorNumber = Errors.DATABASE_CALL_TIMEOUT;
+    } else {
+      errorMessages.add("Too many requests in progress");
+      errorNumber = Errors.DATABASE_EXECUTOR_SATURATED;
+    }
+    ApiErrorDto apiErrorDto = ApiErrorDto.builder().status(HttpStatus.SERVICE_UNAVAILABLE)
+        .errorNumber(errorNumber).timeStamp(timestampService.now()).messages(errorMessages).build();
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+    ResponseEntity<Object> responseEntity = new ResponseEntity<>(apiErrorDto, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    payloadLogger.logResponse(responseEntity);
     return responseEntity;
   }
 
@@ -119,15 +170,15 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     errorMessages.add(ex.getMessage());
     if (ex instanceof NullPointerException) {
       apiErrorDto = ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST).errorNumber(Errors.UNKNOWN_BAD_REQUEST)
-          .messages(errorMessages).timeStamp(LocalDateTime.now().format(dateTimeFormatter)).build();
+          .messages(errorMessages).timeStamp(timestampService.now()).build();
       responseEntity = new ResponseEntity<>(apiErrorDto,HttpStatus.BAD_REQUEST);
-      logger.error("Output: " + responseEntity);
+      payloadLogger.logResponse(responseEntity);
       return responseEntity;
     }
     apiErrorDto = ApiErrorDto.builder().status(HttpStatus.INTERNAL_SERVER_ERROR).errorNumber(Errors.UNKNOWN_INTERNAL_SERVER_ERROR)
-        .messages(errorMessages).timeStamp(LocalDateTime.now().format(dateTimeFormatter)).build();
+        .messages(errorMessages).timeStamp(timestampService.now()).build();
     responseEntity = new ResponseEntity<>(apiErrorDto, HttpStatus.INTERNAL_SERVER_ERROR);
-    logger.error("Output: " + responseEntity);
+    payloadLogger.logResponse(responseEntity);
     return responseEntity;
   }
 }
@@ -1,5 +1,9 @@
 package com.demo.test.exceptions;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.util.Set;
+
 public class UserExceptions {
 
   /**
@@ -22,5 +26,21 @@ public class UserExceptions {
     public InternalServerException(String message, int internalError) {
       super(message, internalError);
     }
+
+    public InternalServerException(String message, int internalError, boolean writableStackTrace) {
+      super(message, internalError, writableStackTrace);
+    }
+  }
+
+  /**
+   * exception for a request body failing its
+   * constraints, answered as an invalid @Valid
+   * argument, without debug message
+   */
+  public static class InvalidBodyException extends ConstraintViolationException {
+
+    public InvalidBodyException(Set<? extends ConstraintViolation<?>> constraintViolations) {
+      super(constraintViolations);
+    }
   }
 }
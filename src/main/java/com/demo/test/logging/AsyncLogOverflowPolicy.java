@@ -0,0 +1,87 @@
+package com.demo.test.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.EventRoute;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * decides what happens to a log event when the async
+ * logger ring buffer is full. Configured with the
+ * async.log.overflow.policy property:
+ * block - request threads wait for space in the buffer
+ * drop - info and less severe events are dropped
+ * sample - one info or less severe event every
+ *          async.log.overflow.sample-every is kept
+ * Warnings and errors are never dropped
+ */
+public class AsyncLogOverflowPolicy implements AsyncQueueFullPolicy {
+
+  public static final String POLICY_PROPERTY = "async.log.overflow.policy";
+  public static final String SAMPLE_EVERY_PROPERTY = "async.log.overflow.sample-every";
+
+  private static final LongAdder QUEUE_FULL = new LongAdder();
+  private static final LongAdder DROPPED = new LongAdder();
+
+  private final Policy policy;
+  private final long sampleEvery;
+  /**
+   * one increment and read per event, a LongAdder sum could
+   * be read by several threads at the same value
+   */
+  private final AtomicLong sampleCounter = new AtomicLong();
+
+  enum Policy { BLOCK, DROP, SAMPLE }
+
+  /**
+   * instantiated by log4j, reads its configuration
+   * from system properties or log4j2.component.properties
+   */
+  public AsyncLogOverflowPolicy() {
+    this(Policy.valueOf(PropertiesUtil.getProperties().getStringProperty(POLICY_PROPERTY, "block")
+        .toUpperCase(Locale.ROOT)),
+        PropertiesUtil.getProperties().getLongProperty(SAMPLE_EVERY_PROPERTY, 10));
+  }
+
+  AsyncLogOverflowPolicy(Policy policy, long sampleEvery) {
+    this.policy = policy;
+    this.sampleEvery = Math.max(1, sampleEvery);
+  }
+
+  @Override
+  public EventRoute getRoute(long backgroundThreadId, Level level) {
+    QUEUE_FULL.increment();
+    // the background thread would wait for itself
+    if (Thread.currentThread().getId() == backgroundThreadId) {
+      return EventRoute.SYNCHRONOUS;
+    }
+    if (policy == Policy.BLOCK || level.isMoreSpecificThan(Level.WARN)) {
+      return EventRoute.ENQUEUE;
+    }
+    if (policy == Policy.SAMPLE) {
+      if (sampleCounter.incrementAndGet() % sampleEvery == 0) {
+        return EventRoute.ENQUEUE;
+      }
+    }
+    DROPPED.increment();
+    return EventRoute.DISCARD;
+  }
+
+  /**
+   * @return events logged while the ring buffer was full
+   */
+  public static long getQueueFullCount() {
+    return QUEUE_FULL.sum();
+  }
+
+  /**
+   * @return events dropped because the ring buffer was full
+   */
+  public static long getDroppedCount() {
+    return DROPPED.sum();
+  }
+}
@@ -0,0 +1,22 @@
+package com.demo.test.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * publishes the async logging overflow
+ * counters as metrics
+ */
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("logging.async.queue-full", this, metrics -> AsyncLogOverflowPolicy.getQueueFullCount())
+        .description("log events received while the ring buffer was full").register(registry);
+    FunctionCounter.builder("logging.async.dropped", this, metrics -> AsyncLogOverflowPolicy.getDroppedCount())
+        .description("log events dropped because the ring buffer was full").register(registry);
+  }
+}
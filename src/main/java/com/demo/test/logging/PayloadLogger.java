@@ -0,0 +1,349 @@
+package com.demo.test.logging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * logs request and response payloads of the api.
+ * The request payload is only kept until the response
+ * is known, then the exchange is sampled by endpoint and
+ * outcome: errors are logged at their own rate, always by
+ * default, successes at a per endpoint rate. Payloads are
+ * only serialized for the sampled exchanges, in one pass
+ * that masks sensitive fields and stops at the max length
+ */
+@Component
+public class PayloadLogger {
+
+  private static final Logger logger = LogManager.getLogger(PayloadLogger.class);
+  private static final String REQUEST_PAYLOAD = PayloadLogger.class.getName() + ".REQUEST_PAYLOAD";
+  private static final String UNMATCHED = "UNMATCHED";
+  private static final String MASK = "******";
+  private static final String TRUNCATED = "...(truncated)";
+
+  private final ObjectWriter objectWriter;
+  private final double successSampleRate;
+  private final Map<String, Double> endpointSuccessSampleRates;
+  private final double errorSampleRate;
+  private final int maxLength;
+
+  @Autowired
+  public PayloadLogger(ObjectMapper objectMapper,
+                       @Value("${payload.log.success-sample-rate}") double successSampleRate,
+                       @Value("#{${payload.log.endpoint-success-sample-rates}}") Map<String, Double> endpointSuccessSampleRates,
+                       @Value("${payload.log.error-sample-rate}") double errorSampleRate,
+                       @Value("${payload.log.max-length}") int maxLength,
+                       @Value("${payload.log.masked-fields}") List<String> maskedFields) {
+    Set<String> masked = new HashSet<>(maskedFields);
+    // the serializers of masked properties are replaced once per type, not on every call
+    objectWriter = objectMapper.copy().registerModule(new SimpleModule().setSerializerModifier(
+        new BeanSerializerModifier() {
+          @Override
+          public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                           List<BeanPropertyWriter> beanProperties) {
+            for (BeanPropertyWriter property : beanProperties) {
+              if (masked.contains(property.getName())) {
+                property.assignSerializer(MaskSerializer.INSTANCE);
+              }
+            }
+            return beanProperties;
+          }
+        })).writer();
+    this.successSampleRate = successSampleRate;
+    this.endpointSuccessSampleRates = endpointSuccessSampleRates;
+    this.errorSampleRate = errorSampleRate;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * keeps the request payload of the current
+   * request until its response is logged
+   * @param payload request body or parameters
+   */
+  public void logRequest(Object payload) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null) {
+      attributes.setAttribute(REQUEST_PAYLOAD, payload, RequestAttributes.SCOPE_REQUEST);
+    }
+  }
+
+  /**
+   * logs the response with the request payload
+   * of the current request if the exchange is sampled
+   * @param responseEntity response being returned
+   */
+  public void logResponse(ResponseEntity<?> responseEntity) {
+    logResponse(currentRequest(), responseEntity);
+  }
+
+  /**
+   * logs the response with the request payload of the
+   * request, for responses built out of the request thread
+   * @param request request being answered, may be null
+   * @param responseEntity response being returned
+   */
+  public void logResponse(HttpServletRequest request, ResponseEntity<?> responseEntity) {
+    boolean error = responseEntity.getStatusCode().isError();
+    Level level = error ? Level.ERROR : Level.INFO;
+    if (!logger.isEnabled(level)) {
+      return;
+    }
+    Object pattern = request != null ? request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) : null;
+    String endpoint = pattern != null ? pattern.toString() : UNMATCHED;
+    if (!isSampled(endpoint, error)) {
+      return;
+    }
+    Object requestPayload = request != null ? request.getAttribute(REQUEST_PAYLOAD) : null;
+    logger.log(level, "{} {} [{}] request: {} response: {}", request != null ? request.getMethod() : "",
+        endpoint, responseEntity.getStatusCodeValue(), format(requestPayload), format(responseEntity.getBody()));
+  }
+
+  boolean isSampled(String endpoint, boolean error) {
+    double sampleRate = error ? errorSampleRate : endpointSuccessSampleRates.getOrDefault(endpoint, successSampleRate);
+    return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+  }
+
+  /**
+   * @return json of the payload with masked fields,
+   *         cut at max length
+   */
+  String format(Object payload) {
+    if (payload == null) {
+      return null;
+    }
+    BoundedWriter writer = new BoundedWriter(maxLength);
+    try (JsonGenerator generator = new BoundedGenerator(objectWriter.createGenerator(writer), writer)) {
+      objectWriter.writeValue(generator, payload);
+    } catch (BoundedWriter.LimitReachedException limitReachedException) {
+      return writer.toString() + TRUNCATED;
+    } catch (IOException ioException) {
+      return String.valueOf(payload);
+    }
+    return writer.toString();
+  }
+
+  private static HttpServletRequest currentRequest() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest()
+        : null;
+  }
+
+  /**
+   * writes the mask instead of the value
+   */
+  private static class MaskSerializer extends JsonSerializer<Object> {
+
+    static final MaskSerializer INSTANCE = new MaskSerializer();
+
+    @Override
+    public void serialize(Object value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+      generator.writeString(MASK);
+    }
+  }
+
+  /**
+   * stops the serialization once the chars written and
+   * those still buffered by jackson exceed the max, the
+   * writer alone only sees them when the buffer is flushed
+   */
+  private static class BoundedGenerator extends JsonGeneratorDelegate {
+
+    private final BoundedWriter writer;
+
+    BoundedGenerator(JsonGenerator generator, BoundedWriter writer) {
+      super(generator, false);
+      this.writer = writer;
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+      super.writeEndArray();
+      check();
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+      super.writeEndObject();
+      check();
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+      super.writeFieldName(name);
+      check();
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+      super.writeFieldName(name);
+      check();
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+      super.writeString(text);
+      check();
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int length) throws IOException {
+      super.writeString(text, offset, length);
+      check();
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws IOException {
+      super.writeString(text);
+      check();
+    }
+
+    @Override
+    public void writeNumber(int value) throws IOException {
+      super.writeNumber(value);
+      check();
+    }
+
+    @Override
+    public void writeNumber(long value) throws IOException {
+      super.writeNumber(value);
+      check();
+    }
+
+    @Override
+    public void writeNumber(double value) throws IOException {
+      super.writeNumber(value);
+      check();
+    }
+
+    @Override
+    public void writeNumber(BigDecimal value) throws IOException {
+      super.writeNumber(value);
+      check();
+    }
+
+    @Override
+    public void writeBoolean(boolean state) throws IOException {
+      super.writeBoolean(state);
+      check();
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+      super.writeNull();
+      check();
+    }
+
+    private void check() throws BoundedWriter.LimitReachedException {
+      writer.check(getOutputBuffered());
+    }
+  }
+
+  /**
+   * keeps at most max chars and aborts the serialization
+   * before more are accepted
+   */
+  private static class BoundedWriter extends Writer {
+
+    private final StringBuilder builder;
+    private final int maxLength;
+
+    BoundedWriter(int maxLength) {
+      builder = new StringBuilder(Math.min(maxLength, 256));
+      this.maxLength = maxLength;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+      if (builder.length() >= maxLength) {
+        throw new LimitReachedException();
+      }
+      builder.append((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+      int remaining = maxLength - builder.length();
+      builder.append(chars, offset, Math.min(length, remaining));
+      if (length > remaining) {
+        throw new LimitReachedException();
+      }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+      int remaining = maxLength - builder.length();
+      builder.append(text, offset, offset + Math.min(length, remaining));
+      if (length > remaining) {
+        throw new LimitReachedException();
+      }
+    }
+
+    /**
+     * @param buffered chars not written yet
+     * @throws LimitReachedException if they would exceed the max
+     */
+    void check(int buffered) throws LimitReachedException {
+      if (builder.length() + buffered > maxLength) {
+        throw new LimitReachedException();
+      }
+    }
+
+    @Override
+    public void flush() { }
+
+    @Override
+    public void close() { }
+
+    @Override
+    public String toString() {
+      return builder.toString();
+    }
+
+    /**
+     * without stack trace, it only
+     * stops the serialization
+     */
+    private static class LimitReachedException extends IOException {
+
+      LimitReachedException() {
+        super("payload max length reached");
+      }
+
+      @Override
+      public synchronized Throwable fillInStackTrace() {
+        return this;
+      }
+    }
+  }
+}
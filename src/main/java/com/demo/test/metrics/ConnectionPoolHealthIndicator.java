@@ -0,0 +1,126 @@
+package com.demo.test.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * readiness of the connection pool. OUT_OF_SERVICE while the
+ * connection acquisition time at pool.readiness.quantile exceeds
+ * pool.readiness.max-wait, while more than pool.readiness.max-pending
+ * threads wait for a connection or when connection requests timed
+ * out within pool.readiness.timeout-window, so the load balancer
+ * stops routing to an instance whose requests already queue for
+ * connections. Reads the hikaricp meters, the quantile decays over
+ * the distribution expiry of the acquire timer. With replicas
+ * the slowest pool is reported and the counts are summed
+ */
+@Component
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+  static final String ACQUIRE = "hikaricp.connections.acquire";
+
+  private final MeterRegistry meterRegistry;
+  private final Duration maxWait;
+  private final double quantile;
+  private final long maxPending;
+  private final Duration timeoutWindow;
+  /**
+   * timeout count by monotonic time, the oldest sample
+   * at or before the start of the timeout window
+   */
+  private final TreeMap<Long, Long> timeoutSamples = new TreeMap<>();
+
+  @Autowired
+  public ConnectionPoolHealthIndicator(MeterRegistry meterRegistry,
+                                       @Value("${pool.readiness.max-wait}") Duration maxWait,
+                                       @Value("${pool.readiness.quantile}") double quantile,
+                                       @Value("${pool.readiness.max-pending}") long maxPending,
+                                       @Value("${pool.readiness.timeout-window}") Duration timeoutWindow) {
+    this.meterRegistry = meterRegistry;
+    this.maxWait = maxWait;
+    this.quantile = quantile;
+    this.maxPending = maxPending;
+    this.timeoutWindow = timeoutWindow;
+    timeoutSamples.put(meterRegistry.config().clock().monotonicTime(), timeouts());
+  }
+
+  @Override
+  public Health health() {
+    Collection<Timer> acquires = meterRegistry.find(ACQUIRE).timers();
+    if (acquires.isEmpty()) {
+      // the pool starts on the first connection
+      return Health.up().withDetail("pool", "not started").build();
+    }
+    double waitMillis = acquires.stream().mapToDouble(this::waitMillis).max().orElse(0);
+    long pending = gauge("hikaricp.connections.pending");
+    long timeouts = timeouts();
+    long recentTimeouts = recentTimeouts(timeouts);
+    boolean saturated = waitMillis > maxWait.toMillis() || pending > maxPending || recentTimeouts > 0;
+    Health.Builder builder = saturated ? Health.outOfService() : Health.up();
+    return builder.withDetail("acquireMillis", waitMillis)
+        .withDetail("quantile", quantile)
+        .withDetail("maxWaitMillis", maxWait.toMillis())
+        .withDetail("active", gauge("hikaricp.connections.active"))
+        .withDetail("idle", gauge("hikaricp.connections.idle"))
+        .withDetail("pending", pending)
+        .withDetail("maxPending", maxPending)
+        .withDetail("timeouts", timeouts)
+        .withDetail("recentTimeouts", recentTimeouts)
+        .build();
+  }
+
+  /**
+   * acquisition time at the configured quantile, the
+   * recent max if the quantile is not published
+   */
+  private double waitMillis(Timer acquire) {
+    for (ValueAtPercentile valueAtPercentile : acquire.takeSnapshot().percentileValues()) {
+      if (valueAtPercentile.percentile() == quantile) {
+        return valueAtPercentile.value(TimeUnit.MILLISECONDS);
+      }
+    }
+    return acquire.max(TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * timeouts within the window, the counter itself never
+   * decays. Checks only add samples, so every caller gets
+   * the same answer however often health is read. Samples
+   * are kept one tenth of the window apart, without a check
+   * for longer than that the window starts at the last one
+   */
+  private synchronized long recentTimeouts(long timeouts) {
+    long now = meterRegistry.config().clock().monotonicTime();
+    Map.Entry<Long, Long> windowStart = timeoutSamples.floorEntry(now - timeoutWindow.toNanos());
+    if (windowStart != null) {
+      timeoutSamples.headMap(windowStart.getKey()).clear();
+    }
+    if (now - timeoutSamples.lastKey() >= timeoutWindow.toNanos() / 10) {
+      timeoutSamples.put(now, timeouts);
+    }
+    return Math.max(0, timeouts - timeoutSamples.firstEntry().getValue());
+  }
+
+  private long gauge(String name) {
+    return (long) meterRegistry.find(name).gauges().stream().mapToDouble(Gauge::value).sum();
+  }
+
+  private long timeouts() {
+    return (long) meterRegistry.find("hikaricp.connections.timeout").counters().stream()
+        .mapToDouble(Counter::count).sum();
+  }
+}
@@ -0,0 +1,43 @@
+package com.demo.test.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * actuator endpoint exposing request latency
+ * quantiles per route and status, in microseconds
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+  private final LatencyRecorder latencyRecorder;
+
+  @Autowired
+  public LatencyEndpoint(LatencyRecorder latencyRecorder) {
+    this.latencyRecorder = latencyRecorder;
+  }
+
+  @ReadOperation
+  public Map<String, Map<String, Object>> latencies() {
+    Map<String, Map<String, Object>> latencies = new TreeMap<>();
+    latencyRecorder.getHistograms().forEach((route, histogram) -> {
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      Map<String, Object> quantiles = new LinkedHashMap<>();
+      quantiles.put("count", snapshot.getCount());
+      quantiles.put("meanMicros", Math.round(snapshot.getMean()));
+      quantiles.put("p50Micros", snapshot.quantile(0.5));
+      quantiles.put("p99Micros", snapshot.quantile(0.99));
+      quantiles.put("p999Micros", snapshot.quantile(0.999));
+      quantiles.put("maxMicros", snapshot.getMax());
+      latencies.put(route.toString(), quantiles);
+    });
+    return latencies;
+  }
+}
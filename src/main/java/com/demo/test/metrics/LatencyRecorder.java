@@ -0,0 +1,86 @@
+package com.demo.test.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * keeps a latency histogram per route and
+ * response status
+ */
+@Component
+public class LatencyRecorder {
+
+  private final ConcurrentHashMap<Route, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+  /**
+   * @param method http method
+   * @param pattern mapping pattern of the handler, e.g. /v1/users/{id}
+   * @param status response status
+   * @param micros latency in microseconds
+   */
+  public void record(String method, String pattern, int status, long micros) {
+    Route route = new Route(method, pattern, status);
+    LatencyHistogram histogram = histograms.get(route);
+    if (histogram == null) {
+      histogram = histograms.computeIfAbsent(route, key -> new LatencyHistogram());
+    }
+    histogram.record(micros);
+  }
+
+  public Map<Route, LatencyHistogram> getHistograms() {
+    return histograms;
+  }
+
+  /**
+   * key of a histogram
+   */
+  public static final class Route {
+
+    private final String method;
+    private final String pattern;
+    private final int status;
+
+    Route(String method, String pattern, int status) {
+      this.method = method;
+      this.pattern = pattern;
+      this.status = status;
+    }
+
+    public String getMethod() {
+      return method;
+    }
+
+    public String getPattern() {
+      return pattern;
+    }
+
+    public int getStatus() {
+      return status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Route)) {
+        return false;
+      }
+      Route route = (Route) o;
+      return status == route.status && method.equals(route.method) && pattern.equals(route.pattern);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(method, pattern, status);
+    }
+
+    @Override
+    public String toString() {
+      return method + " " + pattern + " " + status;
+    }
+  }
+}
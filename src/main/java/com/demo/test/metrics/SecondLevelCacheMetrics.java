@@ -0,0 +1,46 @@
+package com.demo.test.metrics;
+
+import com.demo.test.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * hit ratio of the user regions of the second-level cache,
+ * the hits and misses themselves are published as
+ * hibernate.second.level.cache.requests. Hibernate only
+ * counts them with its statistics, which cost on every
+ * session, so both are off unless the statistics are on
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+public class SecondLevelCacheMetrics {
+
+  private final Statistics statistics;
+
+  @Autowired
+  public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    for (String region : new String[] {User.REGION, User.EMAIL_REGION}) {
+      Gauge.builder("hibernate.second.level.cache.hit-ratio", this, metrics -> metrics.hitRatio(region))
+          .tag("region", region).description("share of lookups served by the region")
+          .register(meterRegistry);
+    }
+  }
+
+  double hitRatio(String region) {
+    CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+    if (regionStatistics == null) {
+      return 0;
+    }
+    long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+    return lookups == 0 ? 0 : (double) regionStatistics.getHitCount() / lookups;
+  }
+}
@@ -0,0 +1,123 @@
+package com.demo.test.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * logs how long the application took to be ready and, when the
+ * startup timeline records (startup.timeline.enabled system property
+ * or environment variable), the beans slowest to create. The own time
+ * of a bean excludes the beans created for it. With startup.exit-on-ready
+ * the application stops once reported, as in the training run of the
+ * class data sharing archive
+ */
+@Component
+public class StartupReport {
+
+  private static final Logger logger = LogManager.getLogger(StartupReport.class);
+
+  static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+  private final int size;
+  private final boolean exitOnReady;
+
+  @Autowired
+  public StartupReport(@Value("${startup.report.size}") int size,
+                       @Value("${startup.exit-on-ready}") boolean exitOnReady) {
+    this.size = size;
+    this.exitOnReady = exitOnReady;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady(ApplicationReadyEvent event) {
+    logger.info(String.format("Ready after %d ms of jvm uptime", ManagementFactory.getRuntimeMXBean().getUptime()));
+    ApplicationStartup applicationStartup = event.getApplicationContext().getApplicationStartup();
+    if (applicationStartup instanceof BufferingApplicationStartup) {
+      for (BeanTime beanTime : slowestBeans(((BufferingApplicationStartup) applicationStartup).getBufferedTimeline(),
+          size)) {
+        logger.info(String.format("Bean %s created in %d ms, %d ms with its dependencies", beanTime.getBeanName(),
+            beanTime.getOwnTime().toMillis(), beanTime.getTotalTime().toMillis()));
+      }
+    }
+    if (exitOnReady) {
+      System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+  }
+
+  /**
+   * @param timeline recorded startup steps
+   * @param size number of beans returned
+   * @return the beans with the longest own creation time, slowest first
+   */
+  static List<BeanTime> slowestBeans(StartupTimeline timeline, int size) {
+    Map<Long, Duration> childrenTime = new HashMap<>();
+    for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+      Long parentId = event.getStartupStep().getParentId();
+      if (parentId != null) {
+        childrenTime.merge(parentId, event.getDuration(), Duration::plus);
+      }
+    }
+    return timeline.getEvents().stream()
+        .filter(event -> BEAN_INSTANTIATE.equals(event.getStartupStep().getName()))
+        .map(event -> new BeanTime(beanName(event.getStartupStep()), event.getDuration(),
+            event.getDuration().minus(childrenTime.getOrDefault(event.getStartupStep().getId(), Duration.ZERO))))
+        .sorted(Comparator.comparing(BeanTime::getOwnTime).reversed())
+        .limit(size)
+        .collect(Collectors.toList());
+  }
+
+  private static String beanName(StartupStep step) {
+    for (StartupStep.Tag tag : step.getTags()) {
+      if ("beanName".equals(tag.getKey())) {
+        return tag.getValue();
+      }
+    }
+    return "?";
+  }
+
+  /**
+   * creation time of a bean
+   */
+  static class BeanTime {
+
+    private final String beanName;
+    private final Duration totalTime;
+    private final Duration ownTime;
+
+    BeanTime(String beanName, Duration totalTime, Duration ownTime) {
+      this.beanName = beanName;
+      this.totalTime = totalTime;
+      this.ownTime = ownTime;
+    }
+
+    String getBeanName() {
+      return beanName;
+    }
+
+    Duration getTotalTime() {
+      return totalTime;
+    }
+
+    Duration getOwnTime() {
+      return ownTime;
+    }
+  }
+}
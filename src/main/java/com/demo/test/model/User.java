@@ -1,13 +1,18 @@
 package com.demo.test.model;
 
 import lombok.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.util.Locale;
 
 
 /**
- * entity used for ORM
+ * entity used for ORM. Users are rarely modified, they are
+ * kept in the second-level cache by id and by normalized email
  */
 @Getter
 @Setter
@@ -17,10 +22,22 @@ import java.time.LocalDate;
 @Builder
 @Entity
 @Table(name = "users")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.REGION)
+@NaturalIdCache(region = User.EMAIL_REGION)
 public class User {
 
+  public static final String REGION = "users";
+  public static final String EMAIL_REGION = "users-by-email";
+  public static final int ALLOCATION_SIZE = 50;
+
+  /**
+   * pooled sequence so that batched inserts
+   * fetch ids once per allocation block
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+  @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = ALLOCATION_SIZE)
   private long id;
 
   @Column(name = "first_name", nullable = false)
@@ -32,9 +49,18 @@ public class User {
   @Column(name = "date_of_birth", nullable = false)
   private LocalDate dateOfBirth;
 
-  @Column(name = "email", nullable = false, unique = true)
+  @Column(name = "email", nullable = false)
   private String email;
 
+  /**
+   * lower-cased email, set on insert. Lookups and the
+   * duplicate check go through its unique index so the
+   * case variants of an email are the same user
+   */
+  @NaturalId
+  @Column(name = "email_normalized", nullable = false)
+  private String emailNormalized;
+
   @Column(name = "password", nullable = false)
   private String password;
 
@@ -53,6 +79,19 @@ public class User {
   @Column(name = "locked", nullable = false)
   private boolean locked = false;
 
+  @PrePersist
+  void normalizeEmail() {
+    emailNormalized = normalizeEmail(email);
+  }
+
+  /**
+   * @param email email as entered
+   * @return key of the email in the email_normalized column
+   */
+  public static String normalizeEmail(String email) {
+    return email != null ? email.toLowerCase(Locale.ROOT) : null;
+  }
+
   @Override
   public String toString() {
     return "User{" +
@@ -1,15 +1,67 @@
 package com.demo.test.repository;
 
 import com.demo.test.model.User;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
 /**
  * Repository interface for
  * crud operations
  */
 @Repository
-public interface UserRepository extends CrudRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+  String FETCH_SIZE = "500";
+
+  /**
+   * checks an email without loading the user, answered
+   * from the unique index on the normalized email
+   * @param emailNormalized normalized email to look up
+   * @return true if the email is registered
+   */
+  boolean existsByEmailNormalized(String emailNormalized);
+
+  /**
+   * returns which of the input emails are
+   * already registered, in a single query
+   * @param emails normalized emails to look up
+   * @return subset of emails present in database
+   */
+  @Query("select u.emailNormalized from User u where u.emailNormalized in :emails")
+  Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+  /**
+   * keyset pagination, returns the users with an id
+   * greater than the input id in id order. Pageable is
+   * expected to be a first page so no offset is used
+   * @param id last id of previous page
+   * @param pageable size of the page
+   * @return next page of users, read-only, not put in the
+   *         second-level cache so a full export does not
+   *         evict the users read by id
+   */
+  @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = FETCH_SIZE),
+      @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+      @QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE")})
+  List<User> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 
-  User findByEmail(String email);
+  /**
+   * streams the normalized email column,
+   * must be consumed inside a transaction
+   * @return all registered emails, normalized
+   */
+  @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = FETCH_SIZE),
+      @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+  @Query("select u.emailNormalized from User u")
+  Stream<String> streamAllEmails();
 }
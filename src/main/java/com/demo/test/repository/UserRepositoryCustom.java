@@ -0,0 +1,30 @@
+package com.demo.test.repository;
+
+import com.demo.test.model.User;
+
+import java.util.List;
+
+/**
+ * user lookups not derived from
+ * the method name by spring data
+ */
+public interface UserRepositoryCustom {
+
+  /**
+   * loads a user by its natural id, the normalized email,
+   * from the second-level cache when it was read before
+   * @param email email to look up, in any case
+   * @return user or null if not registered
+   */
+  User findByEmail(String email);
+
+  /**
+   * keyset pagination over the users matching the criteria,
+   * only the columns of the summary are read
+   * @param criteria filters, null filters match every user
+   * @param afterId last id of the previous page, 0 for the first page
+   * @param limit maximum number of users returned
+   * @return users with an id greater than afterId in id order
+   */
+  List<UserSummary> search(UserSearchCriteria criteria, long afterId, int limit);
+}
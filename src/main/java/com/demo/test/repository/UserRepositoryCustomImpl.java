@@ -0,0 +1,58 @@
+package com.demo.test.repository;
+
+import com.demo.test.model.Sex;
+import com.demo.test.model.User;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.sql.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * natural id lookups, resolved through the natural id cache
+ * and the entity cache before querying the database, and
+ * the user search, a native query of the filters set
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+  private final EntityManager entityManager;
+
+  @Autowired
+  public UserRepositoryCustomImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * read-only so it can be served by a replica
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public User findByEmail(String email) {
+    return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class)
+        .load(User.normalizeEmail(email));
+  }
+
+  /**
+   * read-only, the scans of the support tooling go to a replica when configured
+   */
+  @Override
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public List<UserSummary> search(UserSearchCriteria criteria, long afterId, int limit) {
+    UserSearchQuery searchQuery = UserSearchQuery.of(criteria, afterId, limit);
+    Query query = entityManager.createNativeQuery(searchQuery.getSql());
+    searchQuery.getParameters().forEach(query::setParameter);
+    List<Object[]> rows = query.getResultList();
+    return rows.stream().map(UserRepositoryCustomImpl::toUserSummary).collect(Collectors.toList());
+  }
+
+  private static UserSummary toUserSummary(Object[] row) {
+    return new UserSummary(((Number) row[0]).longValue(), (String) row[1], (String) row[2], (String) row[3],
+        ((Date) row[4]).toLocalDate(), Sex.values()[((Number) row[5]).intValue()], (String) row[6],
+        (Boolean) row[7], (Boolean) row[8]);
+  }
+}
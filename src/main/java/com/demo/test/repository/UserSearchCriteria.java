@@ -0,0 +1,35 @@
+package com.demo.test.repository;
+
+import com.demo.test.model.Sex;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * filters of a user search, a null
+ * filter matches every user
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@ToString
+public class UserSearchCriteria {
+  /**
+   * compared ignoring case
+   */
+  private String country;
+  private Sex sex;
+  /**
+   * first date of birth included
+   */
+  private LocalDate dateOfBirthFrom;
+  /**
+   * last date of birth included
+   */
+  private LocalDate dateOfBirthTo;
+  private Boolean enabled;
+  private Boolean locked;
+}
@@ -0,0 +1,66 @@
+package com.demo.test.repository;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * native sql of a user search, with only the predicates of
+ * the filters set. The flags are inlined rather than bound,
+ * so the planner can match the partial indexes of locked
+ * and disabled users. Each predicate is served by an index
+ * of V4__index_user_search.sql
+ */
+@Getter
+class UserSearchQuery {
+
+  static final String SELECT = "select id, first_name, last_name, email, date_of_birth, sex, country, enabled, locked"
+      + " from users where id > :afterId";
+
+  private final String sql;
+  private final Map<String, Object> parameters;
+
+  private UserSearchQuery(String sql, Map<String, Object> parameters) {
+    this.sql = sql;
+    this.parameters = parameters;
+  }
+
+  /**
+   * @param criteria filters of the search
+   * @param afterId last id of the previous page, 0 for the first page
+   * @param limit maximum number of users returned
+   * @return query of the page of users after afterId in id order
+   */
+  static UserSearchQuery of(UserSearchCriteria criteria, long afterId, int limit) {
+    StringBuilder sql = new StringBuilder(SELECT);
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("afterId", afterId);
+    if (criteria.getCountry() != null) {
+      sql.append(" and lower(country) = :country");
+      parameters.put("country", criteria.getCountry().toLowerCase(Locale.ROOT));
+    }
+    if (criteria.getSex() != null) {
+      sql.append(" and sex = :sex");
+      parameters.put("sex", criteria.getSex().ordinal());
+    }
+    if (criteria.getDateOfBirthFrom() != null) {
+      sql.append(" and date_of_birth >= :dateOfBirthFrom");
+      parameters.put("dateOfBirthFrom", criteria.getDateOfBirthFrom());
+    }
+    if (criteria.getDateOfBirthTo() != null) {
+      sql.append(" and date_of_birth <= :dateOfBirthTo");
+      parameters.put("dateOfBirthTo", criteria.getDateOfBirthTo());
+    }
+    if (criteria.getEnabled() != null) {
+      sql.append(criteria.getEnabled() ? " and enabled" : " and not enabled");
+    }
+    if (criteria.getLocked() != null) {
+      sql.append(criteria.getLocked() ? " and locked" : " and not locked");
+    }
+    sql.append(" order by id limit :limit");
+    parameters.put("limit", limit);
+    return new UserSearchQuery(sql.toString(), parameters);
+  }
+}
@@ -0,0 +1,29 @@
+package com.demo.test.repository;
+
+import com.demo.test.model.Sex;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * columns of a user returned by a search,
+ * read without loading the entity
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class UserSummary {
+  private final long id;
+  private final String firstName;
+  private final String lastName;
+  private final String email;
+  private final LocalDate dateOfBirth;
+  private final Sex sex;
+  private final String country;
+  private final boolean enabled;
+  private final boolean locked;
+}
@@ -1,34 +1,111 @@
 package com.demo.test.security;
 
+import com.demo.test.metrics.LatencyRecorder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
 
 import javax.servlet.*;
 import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * records the processing time of every request in
+ * the latency histogram of its route and status. Async
+ * requests are recorded when their response completes.
+ * Optionally logs a sample of the requests
+ */
 @Component
 @WebFilter("/*")
 public class StatsFilter implements Filter {
 
   private static final Logger logger = LogManager.getLogger(StatsFilter.class);
+  private static final String UNMATCHED = "UNMATCHED";
+
+  private final LatencyRecorder latencyRecorder;
+  private final boolean logEnabled;
+  private final double logSampleRate;
+
+  @Autowired
+  public StatsFilter(LatencyRecorder latencyRecorder, @Value("${stats.log.enabled}") boolean logEnabled,
+                     @Value("${stats.log.sample-rate}") double logSampleRate) {
+    this.latencyRecorder = latencyRecorder;
+    this.logEnabled = logEnabled;
+    this.logSampleRate = logSampleRate;
+  }
 
   @Override
   public void init(FilterConfig filterConfig) throws ServletException { }
 
   @Override
   public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+    if (servletRequest.getDispatcherType() == DispatcherType.ASYNC) {
+      // recorded by the listener registered on the request dispatch
+      filterChain.doFilter(servletRequest, servletResponse);
+      return;
+    }
     long startTime = System.nanoTime();
     try {
       filterChain.doFilter(servletRequest, servletResponse);
     } finally {
-      // print processing time
-      logger.info("Processing time: " + String.valueOf((System.nanoTime()-startTime)/1000000) + " MilliSecs");
+      if (servletRequest.isAsyncStarted()) {
+        // the handler returned before the response was written, record once it completes
+        servletRequest.getAsyncContext().addListener(new CompletionListener(startTime));
+      } else {
+        record((HttpServletRequest) servletRequest, (HttpServletResponse) servletResponse, startTime);
+      }
+    }
+  }
+
+  private void record(HttpServletRequest request, HttpServletResponse response, long startTime) {
+    long micros = (System.nanoTime() - startTime) / 1000;
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    int status = response.getStatus();
+    latencyRecorder.record(request.getMethod(), pattern != null ? pattern.toString() : UNMATCHED, status, micros);
+    if (logEnabled && ThreadLocalRandom.current().nextDouble() < logSampleRate && logger.isInfoEnabled()) {
+      logger.info("Processing time of {} {} [{}]: {} MicroSecs", request.getMethod(), request.getRequestURI(),
+          status, micros);
     }
   }
 
   @Override
   public void destroy() { }
 
+  /**
+   * records an async request with its final status. The
+   * container completes the request after a timeout or an
+   * error too, so completion is the only event recorded
+   */
+  private class CompletionListener implements AsyncListener {
+
+    private final long startTime;
+
+    CompletionListener(long startTime) {
+      this.startTime = startTime;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      record((HttpServletRequest) event.getSuppliedRequest(), (HttpServletResponse) event.getSuppliedResponse(),
+          startTime);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) { }
+
+    @Override
+    public void onError(AsyncEvent event) { }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      // a new async cycle of the same request does not carry over the listeners
+      event.getAsyncContext().addListener(this);
+    }
+  }
 }
@@ -0,0 +1,69 @@
+package com.demo.test.service.async;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * runs database calls of the async controller off the
+ * request threads. One thread per pooled connection, so
+ * a thread never waits for a connection, and a bounded
+ * queue: when it is full calls are rejected instead of
+ * piling up behind a slow database. Only created with
+ * the async controller, user.async.enabled=true
+ */
+@Component
+@ConditionalOnProperty(name = "user.async.enabled", havingValue = "true")
+public class DatabaseExecutor implements DisposableBean {
+
+  private final ThreadPoolExecutor executor;
+  private final Duration timeout;
+
+  @Autowired
+  public DatabaseExecutor(@Value("${spring.datasource.hikari.maximum-pool-size}") int poolSize,
+                          @Value("${user.async.queue-capacity}") int queueCapacity,
+                          @Value("${user.async.timeout}") Duration timeout, MeterRegistry meterRegistry) {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "db-executor-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    this.timeout = timeout;
+    ExecutorServiceMetrics.monitor(meterRegistry, executor, "db-executor", Collections.emptyList());
+  }
+
+  /**
+   * @param call database call
+   * @return result of the call, completed with a TimeoutException
+   *         if the call does not complete within user.async.timeout.
+   *         A timed out call is not interrupted, its thread stays busy
+   *         until the database answers
+   * @throws RejectedExecutionException if the queue is full
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> call) {
+    return CompletableFuture.supplyAsync(call, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,108 @@
+package com.demo.test.service.mapper;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * parses dates of a pattern made of the dd, MM and yyyy
+ * fields and separator chars, like dd-MM-yyyy, by reading
+ * the digits directly. Resolves like a DateTimeFormatter of
+ * the same pattern: a day past the end of the month is moved
+ * to the last day of the month. Invalid input gives null
+ */
+public class DateParser {
+
+  private final String pattern;
+  private final int dayOffset;
+  private final int monthOffset;
+  private final int yearOffset;
+
+  private DateParser(String pattern, int dayOffset, int monthOffset, int yearOffset) {
+    this.pattern = pattern;
+    this.dayOffset = dayOffset;
+    this.monthOffset = monthOffset;
+    this.yearOffset = yearOffset;
+  }
+
+  /**
+   * @param pattern DateTimeFormatter pattern
+   * @return parser of the pattern or null if the
+   *         pattern has other fields or quoted text
+   */
+  public static DateParser of(String pattern) {
+    int dayOffset = -1;
+    int monthOffset = -1;
+    int yearOffset = -1;
+    int i = 0;
+    while (i < pattern.length()) {
+      char c = pattern.charAt(i);
+      if (pattern.startsWith("dd", i) && dayOffset < 0 && !repeats(pattern, i + 2, c)) {
+        dayOffset = i;
+        i += 2;
+      } else if (pattern.startsWith("MM", i) && monthOffset < 0 && !repeats(pattern, i + 2, c)) {
+        monthOffset = i;
+        i += 2;
+      } else if (pattern.startsWith("yyyy", i) && yearOffset < 0 && !repeats(pattern, i + 4, c)) {
+        yearOffset = i;
+        i += 4;
+      } else if (Character.isLetter(c) || c == '\'' || c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+        return null;
+      } else {
+        i++;
+      }
+    }
+    if (dayOffset < 0 || monthOffset < 0 || yearOffset < 0) {
+      return null;
+    }
+    return new DateParser(pattern, dayOffset, monthOffset, yearOffset);
+  }
+
+  /**
+   * @param text date in the pattern of the parser
+   * @return date or null if text is not a valid date
+   */
+  public LocalDate parse(CharSequence text) {
+    if (text == null || text.length() != pattern.length()) {
+      return null;
+    }
+    for (int i = 0; i < pattern.length(); i++) {
+      if (!isField(i) && text.charAt(i) != pattern.charAt(i)) {
+        return null;
+      }
+    }
+    int day = digits(text, dayOffset, 2);
+    int month = digits(text, monthOffset, 2);
+    int year = digits(text, yearOffset, 4);
+    if (day < 1 || day > 31 || month < 1 || month > 12 || year < 1) {
+      return null;
+    }
+    return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
+
+  private boolean isField(int index) {
+    return (index >= dayOffset && index < dayOffset + 2) || (index >= monthOffset && index < monthOffset + 2)
+        || (index >= yearOffset && index < yearOffset + 4);
+  }
+
+  // value of count ascii digits, -1 if any is not a digit
+  private static int digits(CharSequence text, int offset, int count) {
+    int value = 0;
+    for (int i = offset; i < offset + count; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static boolean repeats(String pattern, int index, char c) {
+    return index < pattern.length() && pattern.charAt(index) == c;
+  }
+}
@@ -1,10 +1,12 @@
 package com.demo.test.service.mapper;
 
 import com.demo.test.dto.UserDto;
+import com.demo.test.dto.UserSummaryDto;
 import com.demo.test.exceptions.Errors;
 import com.demo.test.exceptions.UserExceptions;
 import com.demo.test.model.Sex;
 import com.demo.test.model.User;
+import com.demo.test.repository.UserSummary;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,11 +23,14 @@ import java.time.format.DateTimeParseException;
 @Service
 public class Mapper {
 
-  private final String dateTimeFormat;
+  private final DateParser dateParser;
+  private final DateTimeFormatter dateTimeFormatter;
 
   @Autowired
   public Mapper(@Value("${date.input.format}") String dateTimeFormat) {
-    this.dateTimeFormat = dateTimeFormat;
+    // built once, the formatter only parses patterns the date parser does not support
+    dateParser = DateParser.of(dateTimeFormat);
+    dateTimeFormatter = DateTimeFormatter.ofPattern(dateTimeFormat);
   }
 
   public UserDto toUserDto(User user) {
@@ -41,6 +46,20 @@ public class Mapper {
         .build();
   }
 
+  public UserSummaryDto toUserSummaryDto(UserSummary userSummary) {
+    return UserSummaryDto.builder()
+        .id(userSummary.getId())
+        .firstName(userSummary.getFirstName())
+        .lastName(userSummary.getLastName())
+        .email(userSummary.getEmail())
+        .dateOfBirth(userSummary.getDateOfBirth().toString())
+        .sex(userSummary.getSex().toString())
+        .country(userSummary.getCountry())
+        .enabled(userSummary.isEnabled())
+        .locked(userSummary.isLocked())
+        .build();
+  }
+
   public User toUser(UserDto userDto) {
     return User.builder()
         .firstName(userDto.getFirstName())
@@ -54,10 +73,22 @@ public class Mapper {
         .build();
   }
 
+  /**
+   * parses a date of birth of the date.input.format pattern
+   * @param dateOfBirth external input
+   * @return parsed date
+   */
   public LocalDate getDateOfBirth(String dateOfBirth) {
-    DateTimeFormatter dtf = DateTimeFormatter.ofPattern(dateTimeFormat);
+    if (dateParser != null) {
+      LocalDate date = dateParser.parse(dateOfBirth);
+      if (date == null) {
+        throw new UserExceptions.BadRequestException("Text '" + dateOfBirth + "' is not a valid date of pattern "
+            + dateParser.getPattern(), Errors.INPUT_DATE_FORMAT);
+      }
+      return date;
+    }
     try {
-      return LocalDate.parse(dateOfBirth, dtf);
+      return LocalDate.parse(dateOfBirth, dateTimeFormatter);
     } catch (DateTimeParseException dateTimeParseException) {
       throw new UserExceptions.BadRequestException(dateTimeParseException.getMessage(), Errors.INPUT_DATE_FORMAT);
     }
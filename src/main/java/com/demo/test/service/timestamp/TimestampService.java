@@ -0,0 +1,73 @@
+package com.demo.test.service.timestamp;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * gives the current time in the date.output.format
+ * pattern. The pattern has second precision, so the
+ * time is formatted once per second and every caller
+ * in that second gets the same string
+ */
+@Service
+public class TimestampService {
+
+  private final Clock clock;
+  private final DateTimeFormatter dateTimeFormatter;
+  private final boolean secondPrecision;
+
+  private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, null);
+
+  @Autowired
+  public TimestampService(@Value("${date.output.format}") String dateTimeFormat) {
+    this(dateTimeFormat, Clock.systemDefaultZone());
+  }
+
+  TimestampService(String dateTimeFormat, Clock clock) {
+    this.clock = clock;
+    dateTimeFormatter = DateTimeFormatter.ofPattern(dateTimeFormat);
+    // a pattern with fractions of seconds is formatted on every call
+    LocalDateTime second = LocalDateTime.of(2000, 1, 1, 0, 0);
+    secondPrecision = second.format(dateTimeFormatter)
+        .equals(second.plusNanos(999_999_999).format(dateTimeFormatter));
+  }
+
+  /**
+   * @return current time formatted
+   */
+  public String now() {
+    long millis = clock.millis();
+    if (!secondPrecision) {
+      return format(millis);
+    }
+    long epochSecond = Math.floorDiv(millis, 1000);
+    Timestamp current = timestamp;
+    if (current.epochSecond != epochSecond) {
+      // threads racing at the turn of a second format the same text, any of them can be kept
+      current = new Timestamp(epochSecond, format(epochSecond * 1000));
+      timestamp = current;
+    }
+    return current.text;
+  }
+
+  private String format(long millis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone()).format(dateTimeFormatter);
+  }
+
+  private static class Timestamp {
+
+    private final long epochSecond;
+    private final String text;
+
+    Timestamp(long epochSecond, String text) {
+      this.epochSecond = epochSecond;
+      this.text = text;
+    }
+  }
+}
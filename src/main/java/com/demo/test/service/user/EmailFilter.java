@@ -0,0 +1,226 @@
+package com.demo.test.service.user;
+
+import com.demo.test.model.User;
+import com.demo.test.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * bloom filter of registered normalized emails. Answers if an email
+ * is definitely absent, in which case the database lookup
+ * can be skipped, or might be present. The database unique
+ * constraint stays the source of truth. Until the filter is
+ * built every email might be present
+ */
+@Component
+public class EmailFilter {
+
+  private static final Logger logger = LogManager.getLogger(EmailFilter.class);
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final long bitCount;
+  private final int hashCount;
+  private final Timer rebuildTimer;
+  private final Counter absentCounter;
+  private final Counter falsePositiveCounter;
+
+  private volatile Bits bits;
+  private volatile Bits building;
+  private volatile boolean ready;
+
+  @Autowired
+  public EmailFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                     @Value("${user.email-filter.expected-insertions}") long expectedInsertions,
+                     @Value("${user.email-filter.false-positive-rate}") double falsePositiveRate,
+                     MeterRegistry meterRegistry) {
+    this.userRepository = userRepository;
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+    bitCount = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate)
+        / (Math.log(2) * Math.log(2))));
+    hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    bits = new Bits(bitCount);
+
+    rebuildTimer = Timer.builder("users.email-filter.rebuild").description("time to rebuild the email filter")
+        .register(meterRegistry);
+    absentCounter = Counter.builder("users.email-filter.checks").tag("result", "absent")
+        .register(meterRegistry);
+    falsePositiveCounter = Counter.builder("users.email-filter.checks").tag("result", "false-positive")
+        .register(meterRegistry);
+    Gauge.builder("users.email-filter.false-positive-rate", this, EmailFilter::observedFalsePositiveRate)
+        .description("share of absent emails the filter reported as present").register(meterRegistry);
+    Gauge.builder("users.email-filter.expected-false-positive-rate", this, EmailFilter::expectedFalsePositiveRate)
+        .description("false positive rate expected from the bits set").register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    try {
+      rebuild();
+    } catch (RuntimeException runtimeException) {
+      // registrations keep working, every email is looked up until the next rebuild
+      logger.error("Email filter could not be built", runtimeException);
+    }
+  }
+
+  /**
+   * rebuilds the filter by streaming the normalized email column.
+   * Emails added while rebuilding go to both filters,
+   * the new filter replaces the current one when done
+   */
+  public void rebuild() {
+    Bits newBits = new Bits(bitCount);
+    building = newBits;
+    LongAdder count = new LongAdder();
+    rebuildTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+      try (Stream<String> emails = userRepository.streamAllEmails()) {
+        emails.forEach(email -> {
+          newBits.put(email, hashCount);
+          count.increment();
+        });
+      }
+    }));
+    bits = newBits;
+    building = null;
+    ready = true;
+    logger.info(String.format("Email filter built with %d emails", count.sum()));
+  }
+
+  /**
+   * @param email email to check, in any case
+   * @return false if the email is definitely not
+   *         registered, true if it might be
+   */
+  public boolean mightContain(String email) {
+    if (!ready) {
+      return true;
+    }
+    boolean mightContain = bits.mightContain(User.normalizeEmail(email), hashCount);
+    if (!mightContain) {
+      absentCounter.increment();
+    }
+    return mightContain;
+  }
+
+  public void put(String email) {
+    String emailNormalized = User.normalizeEmail(email);
+    bits.put(emailNormalized, hashCount);
+    Bits newBits = building;
+    if (newBits != null) {
+      newBits.put(emailNormalized, hashCount);
+    }
+  }
+
+  /**
+   * records that the filter reported an
+   * email that was not found in database
+   */
+  public void recordFalsePositive() {
+    falsePositiveCounter.increment();
+  }
+
+  double observedFalsePositiveRate() {
+    double falsePositives = falsePositiveCounter.count();
+    double negatives = falsePositives + absentCounter.count();
+    return negatives == 0 ? 0 : falsePositives / negatives;
+  }
+
+  double expectedFalsePositiveRate() {
+    return Math.pow((double) bits.bitsSet() / bitCount, hashCount);
+  }
+
+  /**
+   * thread safe bit array indexed
+   * by double hashing of the email
+   */
+  private static class Bits {
+
+    private final AtomicLongArray words;
+    private final long size;
+
+    Bits(long size) {
+      this.size = size;
+      words = new AtomicLongArray((int) ((size + 63) / 64));
+    }
+
+    void put(String email, int hashCount) {
+      long hash = hash(email);
+      long hash1 = hash;
+      long hash2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+      for (int i = 0; i < hashCount; i++) {
+        set(Math.floorMod(hash1 + i * hash2, size));
+      }
+    }
+
+    boolean mightContain(String email, int hashCount) {
+      long hash = hash(email);
+      long hash1 = hash;
+      long hash2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+      for (int i = 0; i < hashCount; i++) {
+        if (!get(Math.floorMod(hash1 + i * hash2, size))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    long bitsSet() {
+      long count = 0;
+      for (int i = 0; i < words.length(); i++) {
+        count += Long.bitCount(words.get(i));
+      }
+      return count;
+    }
+
+    private void set(long index) {
+      int word = (int) (index >>> 6);
+      long mask = 1L << index;
+      long current;
+      do {
+        current = words.get(word);
+        if ((current & mask) != 0) {
+          return;
+        }
+      } while (!words.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean get(long index) {
+      return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    // 64 bit FNV-1a over the chars, finalized with the murmur3 mix
+    private static long hash(String email) {
+      long hash = 0xcbf29ce484222325L;
+      for (int i = 0; i < email.length(); i++) {
+        hash ^= email.charAt(i);
+        hash *= 0x100000001b3L;
+      }
+      return mix(hash);
+    }
+
+    private static long mix(long hash) {
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      hash *= 0xc4ceb9fe1a85ec53L;
+      hash ^= hash >>> 33;
+      return hash;
+    }
+  }
+}
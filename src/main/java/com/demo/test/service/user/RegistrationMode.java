@@ -0,0 +1,17 @@
+package com.demo.test.service.user;
+
+/**
+ * how registration detects an already
+ * registered email
+ */
+public enum RegistrationMode {
+  /**
+   * looks the email up before inserting
+   */
+  CHECK,
+  /**
+   * inserts directly and relies on the
+   * unique constraint on email
+   */
+  OPTIMISTIC
+}
@@ -0,0 +1,36 @@
+package com.demo.test.service.user;
+
+import com.demo.test.model.User;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * outcome of registering one user of a batch.
+ * Holds either the registered user or the
+ * error message and internal error code
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RegistrationResult {
+
+  private final User user;
+  private final String message;
+  private final int internalError;
+
+  public static RegistrationResult registered(User user) {
+    return new RegistrationResult(user, null, 0);
+  }
+
+  public static RegistrationResult rejected(String message, int internalError) {
+    return new RegistrationResult(null, message, internalError);
+  }
+
+  public boolean isRegistered() {
+    return user != null;
+  }
+}
@@ -0,0 +1,111 @@
+package com.demo.test.service.user;
+
+import com.demo.test.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * bounded in-process cache of users by id and
+ * by normalized email. Entries are evicted by size and
+ * by time since written, hits, misses and evictions
+ * are published as cache metrics
+ */
+@Component
+public class UserCache {
+
+  private final Cache<Long, User> usersById;
+  private final Cache<String, User> usersByEmail;
+
+  @Autowired
+  public UserCache(@Value("${user.cache.maximum-size}") long maximumSize,
+                   @Value("${user.cache.expire-after-write}") Duration expireAfterWrite,
+                   MeterRegistry meterRegistry) {
+    usersById = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite)
+        .recordStats().build();
+    usersByEmail = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite)
+        .recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.by-id");
+    CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "users.by-email");
+  }
+
+  /**
+   * returns the cached user or loads it.
+   * Missing users are not cached
+   * @param id user id
+   * @param loader called on a miss, may return null
+   * @return user or null if not found
+   */
+  public User get(long id, Function<Long, User> loader) {
+    return usersById.get(id, loader);
+  }
+
+  /**
+   * returns the cached user or loads it.
+   * Missing users are not cached
+   * @param email user email, in any case
+   * @param loader called on a miss with the
+   *               normalized email, may return null
+   * @return user or null if not found
+   */
+  public User get(String email, Function<String, User> loader) {
+    return usersByEmail.get(User.normalizeEmail(email), loader);
+  }
+
+  /**
+   * @param id user id
+   * @return cached user or null, never loads
+   */
+  public User getIfPresent(long id) {
+    return usersById.getIfPresent(id);
+  }
+
+  /**
+   * @param email user email
+   * @return true if a user with this email is cached
+   */
+  public boolean containsEmail(String email) {
+    return usersByEmail.getIfPresent(User.normalizeEmail(email)) != null;
+  }
+
+  /**
+   * adds a user under both its id and email
+   * @param user persisted user
+   */
+  public void put(User user) {
+    usersById.put(user.getId(), user);
+    usersByEmail.put(User.normalizeEmail(user.getEmail()), user);
+  }
+
+  /**
+   * adds a user once the current transaction commits,
+   * so a failed insert never reaches the cache
+   * @param user user being persisted
+   */
+  public void putAfterCommit(User user) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      put(user);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        put(user);
+      }
+    });
+  }
+
+  public void invalidateAll() {
+    usersById.invalidateAll();
+    usersByEmail.invalidateAll();
+  }
+}
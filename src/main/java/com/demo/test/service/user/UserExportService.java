@@ -0,0 +1,94 @@
+package com.demo.test.service.user;
+
+import com.demo.test.model.User;
+import com.demo.test.service.mapper.Mapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * writes all the users to a stream, page
+ * by page, without loading the whole table
+ */
+@Service
+public class UserExportService {
+
+  private static final Logger logger = LogManager.getLogger(UserExportService.class);
+
+  private final UserService userService;
+  private final Mapper mapper;
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter objectWriter;
+  private final EntityManager entityManager;
+  private final int pageSize;
+
+  @Autowired
+  public UserExportService(UserService userService, Mapper mapper, ObjectMapper objectMapper,
+                           EntityManager entityManager, @Value("${user.export.page-size}") int pageSize) {
+    this.userService = userService;
+    this.mapper = mapper;
+    this.objectMapper = objectMapper;
+    // flushed once per page, not once per user
+    this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.entityManager = entityManager;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * exports all users in id order using keyset
+   * pagination. Each page is written and flushed
+   * before the next one is read
+   * @param output response body
+   * @param ndjson true for newline delimited json,
+   *               false for a single json array
+   * @return number of users exported
+   * @throws IOException if output cannot be written
+   */
+  public long exportUsers(OutputStream output, boolean ndjson) throws IOException {
+    JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // ndjson records are separated by new lines, not by the default space
+    generator.setRootValueSeparator(null);
+    if (!ndjson) {
+      generator.writeStartArray();
+    }
+
+    long exported = 0;
+    long lastId = 0;
+    List<User> page;
+    do {
+      page = userService.getUsersAfter(lastId, pageSize);
+      for (User user : page) {
+        objectWriter.writeValue(generator, mapper.toUserDto(user));
+        if (ndjson) {
+          generator.writeRaw('\n');
+        }
+      }
+      generator.flush();
+      if (!page.isEmpty()) {
+        lastId = page.get(page.size() - 1).getId();
+        exported += page.size();
+      }
+      // exported users are no longer needed, keep the persistence context from growing
+      entityManager.clear();
+    } while (page.size() == pageSize);
+
+    if (!ndjson) {
+      generator.writeEndArray();
+    }
+    generator.flush();
+    logger.info(String.format("Export completed: %d users", exported));
+    return exported;
+  }
+}
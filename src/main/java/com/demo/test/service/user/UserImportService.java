@@ -0,0 +1,255 @@
+package com.demo.test.service.user;
+
+import com.demo.test.dto.ImportProgressDto;
+import com.demo.test.dto.RegistrationResultDto;
+import com.demo.test.dto.UserDto;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.exceptions.UserExceptions;
+import com.demo.test.model.User;
+import com.demo.test.service.validation.UserDtoValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * registers users received in bulk, either as
+ * a list or as a stream of newline delimited json
+ */
+@Service
+public class UserImportService {
+
+  private static final Logger logger = LogManager.getLogger(UserImportService.class);
+
+  private final UserService userService;
+  private final UserDtoValidator userDtoValidator;
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter objectWriter;
+  private final ObjectReader userDtoReader;
+  private final EntityManager entityManager;
+  private final int chunkSize;
+  private final int maxLineLength;
+
+  @Autowired
+  public UserImportService(UserService userService, UserDtoValidator userDtoValidator, ObjectMapper objectMapper,
+                           EntityManager entityManager, @Value("${user.import.chunk-size}") int chunkSize,
+                           @Value("${user.import.max-line-length}") int maxLineLength) {
+    this.userService = userService;
+    this.userDtoValidator = userDtoValidator;
+    this.objectMapper = objectMapper;
+    // output is flushed by chunk
+    this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.userDtoReader = objectMapper.readerFor(UserDto.class);
+    this.entityManager = entityManager;
+    this.chunkSize = chunkSize;
+    this.maxLineLength = maxLineLength;
+  }
+
+  /**
+   * validates, maps and registers a list of users.
+   * Users failing validation or mapping are rejected
+   * without reaching the database
+   * @param userDtos external input
+   * @return one result per input user, in input order
+   */
+  public List<RegistrationResult> registerAll(List<UserDto> userDtos) {
+    RegistrationResult[] results = new RegistrationResult[userDtos.size()];
+    List<User> users = new ArrayList<>(userDtos.size());
+    List<Integer> userIndexes = new ArrayList<>(userDtos.size());
+    for (int i = 0; i < userDtos.size(); i++) {
+      RegistrationResult rejected = toUser(userDtos.get(i), users);
+      if (rejected != null) {
+        results[i] = rejected;
+      } else {
+        userIndexes.add(i);
+      }
+    }
+    if (!users.isEmpty()) {
+      List<RegistrationResult> registrationResults = userService.registerUsers(users);
+      for (int i = 0; i < registrationResults.size(); i++) {
+        results[userIndexes.get(i)] = registrationResults.get(i);
+      }
+    }
+    List<RegistrationResult> resultList = new ArrayList<>(results.length);
+    Collections.addAll(resultList, results);
+    return resultList;
+  }
+
+  /**
+   * imports users from newline delimited json, one UserDto
+   * per line. Lines are read, validated and registered in
+   * transactions of chunk-size users, so memory does not grow
+   * with the payload. Rejected lines and a progress record per
+   * chunk are written to output as newline delimited json as
+   * soon as the chunk is committed. A line longer than
+   * max-line-length is rejected without being read into memory
+   * @param input request body
+   * @param output response body
+   * @return final progress
+   * @throws IOException if input cannot be read or output written
+   */
+  public ImportProgressDto importUsers(InputStream input, OutputStream output) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // records are separated by new lines, not by the default space
+    generator.setRootValueSeparator(null);
+
+    List<User> chunk = new ArrayList<>(chunkSize);
+    List<Long> chunkLines = new ArrayList<>(chunkSize);
+    StringBuilder line = new StringBuilder();
+    long lineNumber = 0;
+    long registered = 0;
+    long rejected = 0;
+    while (readLine(reader, line)) {
+      lineNumber++;
+      if (StringUtils.isBlank(line)) {
+        continue;
+      }
+      RegistrationResult rejection = line.length() > maxLineLength
+          ? RegistrationResult.rejected("Line is longer than " + maxLineLength + " characters.", Errors.LINE_TOO_LONG)
+          : readUser(line.toString(), chunk);
+      if (rejection != null) {
+        rejected++;
+        write(generator, toRejectedDto(lineNumber, rejection));
+        continue;
+      }
+      chunkLines.add(lineNumber);
+      if (chunk.size() == chunkSize) {
+        long chunkRejected = registerChunk(chunk, chunkLines, generator);
+        registered += chunk.size() - chunkRejected;
+        rejected += chunkRejected;
+        write(generator, progress(lineNumber, registered, rejected, false));
+        generator.flush();
+        chunk.clear();
+        chunkLines.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      long chunkRejected = registerChunk(chunk, chunkLines, generator);
+      registered += chunk.size() - chunkRejected;
+      rejected += chunkRejected;
+    }
+    ImportProgressDto progress = progress(lineNumber, registered, rejected, true);
+    write(generator, progress);
+    generator.flush();
+    logger.info(String.format("Import completed: %s", progress));
+    return progress;
+  }
+
+  private long registerChunk(List<User> chunk, List<Long> chunkLines, JsonGenerator generator) throws IOException {
+    List<RegistrationResult> results;
+    try {
+      results = userService.registerUsers(chunk);
+    } catch (UserExceptions.BadRequestException badRequestException) {
+      // chunk was rolled back, all its lines are rejected
+      RegistrationResult rejected = RegistrationResult.rejected(badRequestException.getMessage(),
+          badRequestException.getInternalError());
+      results = Collections.nCopies(chunk.size(), rejected);
+    }
+    // registered users are no longer needed, keep the persistence context from growing
+    entityManager.clear();
+    long chunkRejected = 0;
+    for (int i = 0; i < results.size(); i++) {
+      if (!results.get(i).isRegistered()) {
+        chunkRejected++;
+        write(generator, toRejectedDto(chunkLines.get(i), results.get(i)));
+      }
+    }
+    return chunkRejected;
+  }
+
+  /**
+   * reads the next line, without its terminator, into line.
+   * At most max-line-length + 1 characters are kept, the rest
+   * of a longer line is skipped
+   * @return false at the end of input
+   */
+  private boolean readLine(Reader reader, StringBuilder line) throws IOException {
+    line.setLength(0);
+    int c = reader.read();
+    if (c < 0) {
+      return false;
+    }
+    while (c >= 0 && c != '\n') {
+      if (line.length() <= maxLineLength) {
+        line.append((char) c);
+      }
+      c = reader.read();
+    }
+    if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+      line.setLength(line.length() - 1);
+    }
+    return true;
+  }
+
+  private RegistrationResult readUser(String line, List<User> users) {
+    UserDto userDto;
+    try {
+      userDto = userDtoReader.readValue(line);
+    } catch (JsonProcessingException jsonProcessingException) {
+      return RegistrationResult.rejected(jsonProcessingException.getOriginalMessage(), Errors.UNKNOWN_BAD_REQUEST);
+    }
+    if (userDto == null) {
+      return RegistrationResult.rejected("User cannot be null.", Errors.UNKNOWN_BAD_REQUEST);
+    }
+    return toUser(userDto, users);
+  }
+
+  /**
+   * validates and maps a user, adding it to users
+   * @return rejection if validation or mapping failed, null otherwise
+   */
+  private RegistrationResult toUser(UserDto userDto, List<User> users) {
+    Set<ConstraintViolation<UserDto>> violations = userDtoValidator.validate(userDto);
+    if (!violations.isEmpty()) {
+      return RegistrationResult.rejected(violations.stream().map(ConstraintViolation::getMessage)
+          .collect(Collectors.joining(", ")), Errors.CONSTRAINT_VIOLATION);
+    }
+    try {
+      users.add(userService.toUser(userDto));
+      return null;
+    } catch (UserExceptions.BadRequestException badRequestException) {
+      return RegistrationResult.rejected(badRequestException.getMessage(), badRequestException.getInternalError());
+    }
+  }
+
+  private RegistrationResultDto toRejectedDto(long lineNumber, RegistrationResult result) {
+    return RegistrationResultDto.builder().index(lineNumber).status(HttpStatus.BAD_REQUEST)
+        .errorNumber(result.getInternalError()).messages(Collections.singletonList(result.getMessage())).build();
+  }
+
+  private ImportProgressDto progress(long lines, long registered, long rejected, boolean completed) {
+    return ImportProgressDto.builder().lines(lines).registered(registered).rejected(rejected)
+        .completed(completed).build();
+  }
+
+  private void write(JsonGenerator generator, Object value) throws IOException {
+    objectWriter.writeValue(generator, value);
+    generator.writeRaw('\n');
+  }
+}
@@ -2,7 +2,10 @@ package com.demo.test.service.user;
 
 import com.demo.test.dto.UserDto;
 import com.demo.test.model.User;
+import com.demo.test.repository.UserSearchCriteria;
+import com.demo.test.repository.UserSummary;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,6 +16,9 @@ public interface UserService {
 
   User toUser(UserDto userDto);
   User registerUser(User user);
+  List<RegistrationResult> registerUsers(List<User> users);
   User getUser(String email);
   Optional<User> getUser(long id);
+  List<User> getUsersAfter(long lastId, int limit);
+  List<UserSummary> searchUsers(UserSearchCriteria criteria, long afterId, int limit);
 }
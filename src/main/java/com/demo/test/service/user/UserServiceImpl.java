@@ -1,18 +1,34 @@
 package com.demo.test.service.user;
 
+import com.demo.test.datasource.DataSourceRouting;
+import com.demo.test.datasource.RecentWrites;
 import com.demo.test.dto.UserDto;
 import com.demo.test.exceptions.Errors;
 import com.demo.test.exceptions.UserExceptions;
 import com.demo.test.model.User;
 import com.demo.test.repository.UserRepository;
+import com.demo.test.repository.UserSearchCriteria;
+import com.demo.test.repository.UserSummary;
 import com.demo.test.service.mapper.Mapper;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * class responsible for all the
@@ -21,17 +37,35 @@ import java.util.Optional;
 @Service
 public class UserServiceImpl implements UserService {
 
+  static final String UNIQUE_VIOLATION = "23505";
+  static final String EMAIL_UNIQUE_KEY = "users_email_normalized_key";
+
   private final UserRepository userRepository;
   private final Mapper mapper;
+  private final UserCache userCache;
+  private final EmailFilter emailFilter;
+  private final RecentWrites recentWrites;
+  private final RegistrationMode registrationMode;
 
   @Autowired
-  public UserServiceImpl(UserRepository userRepository, Mapper mapper) {
+  public UserServiceImpl(UserRepository userRepository, Mapper mapper, UserCache userCache,
+                         EmailFilter emailFilter, RecentWrites recentWrites,
+                         @Value("${user.registration.mode}") RegistrationMode registrationMode) {
     this.userRepository = userRepository;
     this.mapper = mapper;
+    this.userCache = userCache;
+    this.emailFilter = emailFilter;
+    this.recentWrites = recentWrites;
+    this.registrationMode = registrationMode;
   }
 
   /**
-   * registers a user
+   * registers a user. In CHECK mode the email is looked up
+   * first, in OPTIMISTIC mode the user is inserted directly.
+   * Emails differing only by case are the same email.
+   * In both modes a violation of the unique email constraint,
+   * e.g. by a concurrent registration, is reported as an
+   * already existing email
    * @param user input object of type User
    * @return if the user already not present in
    * database it is created and returned
@@ -41,39 +75,133 @@ public class UserServiceImpl implements UserService {
   @Override
   @Transactional
   public User registerUser(User user) {
-    //check if user already exists by email
-    if (getUser(user.getEmail()) != null) {
-      throw new UserExceptions.BadRequestException("Email [" + user.getEmail() + "] already exists.",
+    //check if user already exists by email, skipped if the filter knows it is absent
+    if (registrationMode == RegistrationMode.CHECK && emailFilter.mightContain(user.getEmail())
+        && exists(user.getEmail())) {
+      throw new UserExceptions.BadRequestException(alreadyExistsMessage(user.getEmail()),
           Errors.USER_ALREADY_EXISTS);
     }
     if (calculateAge(user.getDateOfBirth()) < 18) {
-      throw new UserExceptions.BadRequestException("Age [" + calculateAge(user.getDateOfBirth())
-          + "] is below 18. Only 18 and above users can register.",
+      throw new UserExceptions.BadRequestException(underAgeMessage(user.getDateOfBirth()),
           Errors.UNDER_AGE);
     }
     user.setPassword(encryptPassword(user.getPassword()));
-    return userRepository.save(user);
+    User registeredUser;
+    try {
+      registeredUser = userRepository.save(user);
+      userRepository.flush();
+    } catch (DataIntegrityViolationException dataIntegrityViolationException) {
+      throw translateUniqueViolation(dataIntegrityViolationException, alreadyExistsMessage(user.getEmail()));
+    }
+    emailFilter.put(registeredUser.getEmail());
+    userCache.putAfterCommit(registeredUser);
+    recentWrites.recordAfterCommit(registeredUser);
+    return registeredUser;
+  }
+
+  /**
+   * registers a batch of users. Existing emails are
+   * looked up for the whole batch in one query and the
+   * accepted users are inserted through jdbc batching.
+   * If an email is registered concurrently the whole batch
+   * is rolled back with an already existing email error
+   * @param users input objects of type User
+   * @return one result per input user, in input order,
+   *         either the registered user or the reason
+   *         (with the same error codes as registerUser)
+   *         it was rejected
+   */
+  @Override
+  @Transactional
+  public List<RegistrationResult> registerUsers(List<User> users) {
+    Set<String> emails = users.stream().map(user -> User.normalizeEmail(user.getEmail()))
+        .filter(emailFilter::mightContain).collect(Collectors.toSet());
+    Set<String> existingEmails = emails.isEmpty() ? Collections.emptySet() : userRepository.findExistingEmails(emails);
+    Set<String> acceptedEmails = new HashSet<>();
+    List<RegistrationResult> results = new ArrayList<>(users.size());
+    List<User> accepted = new ArrayList<>(users.size());
+
+    for (User user : users) {
+      String emailNormalized = User.normalizeEmail(user.getEmail());
+      if (existingEmails.contains(emailNormalized) || acceptedEmails.contains(emailNormalized)) {
+        results.add(RegistrationResult.rejected(alreadyExistsMessage(user.getEmail()), Errors.USER_ALREADY_EXISTS));
+      } else if (calculateAge(user.getDateOfBirth()) < 18) {
+        results.add(RegistrationResult.rejected(underAgeMessage(user.getDateOfBirth()), Errors.UNDER_AGE));
+      } else {
+        user.setPassword(encryptPassword(user.getPassword()));
+        acceptedEmails.add(emailNormalized);
+        accepted.add(user);
+        results.add(RegistrationResult.registered(user));
+      }
+    }
+    try {
+      userRepository.saveAll(accepted);
+      userRepository.flush();
+    } catch (DataIntegrityViolationException dataIntegrityViolationException) {
+      throw translateUniqueViolation(dataIntegrityViolationException,
+          "An email of the batch was registered concurrently.");
+    }
+    acceptedEmails.forEach(emailFilter::put);
+    accepted.forEach(recentWrites::recordAfterCommit);
+    return results;
   }
 
   /**
-   * returns a user by email
+   * returns a user by email, from cache if it
+   * was recently read. A user registered in the
+   * read-your-writes window is read from the primary
    * @param email input email
    * @return retrieved user object
    */
   @Override
   public User getUser(String email) {
-    return userRepository.findByEmail(email);
+    return userCache.get(email, key -> recentWrites.containsEmail(key)
+        ? DataSourceRouting.onPrimary(() -> userRepository.findByEmail(key))
+        : userRepository.findByEmail(key));
   }
 
   /**
-   * finds user by id
+   * finds user by id, from cache if it was
+   * recently read. A user registered in the
+   * read-your-writes window is read from the primary
    * @param id input id which is the id in database
    * @return Optional<User> could be empty if id
    *         does not exists.
    */
   @Override
   public Optional<User> getUser(long id) {
-    return userRepository.findById(id);
+    return Optional.ofNullable(userCache.get(id, key -> recentWrites.containsId(key)
+        ? DataSourceRouting.onPrimary(() -> userRepository.findById(key).orElse(null))
+        : userRepository.findById(key).orElse(null)));
+  }
+
+  /**
+   * returns the next page of users by keyset
+   * pagination, never scans skipped rows
+   * @param lastId id of the last user already read,
+   *               0 to start from the beginning
+   * @param limit maximum number of users returned
+   * @return users with id greater than lastId in id order
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<User> getUsersAfter(long lastId, int limit) {
+    return userRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, limit));
+  }
+
+  /**
+   * returns the next page of users matching the criteria
+   * by keyset pagination, reading only their summary
+   * @param criteria filters, null filters match every user
+   * @param afterId id of the last user already read,
+   *                0 to start from the beginning
+   * @param limit maximum number of users returned
+   * @return matching users with id greater than afterId in id order
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<UserSummary> searchUsers(UserSearchCriteria criteria, long afterId, int limit) {
+    return userRepository.search(criteria, afterId, limit);
   }
 
   /**
@@ -91,17 +219,71 @@ public class UserServiceImpl implements UserService {
    * @param password
    * @return
    */
-  private String encryptPassword(String password) {
+  static String encryptPassword(String password) {
     return password;
     //new BCryptPasswordEncoder().encode(password);
   }
 
+  /**
+   * looks up an email the filter could not rule out
+   * and records it when the filter was wrong
+   */
+  private boolean exists(String email) {
+    if (userCache.containsEmail(email) || userRepository.existsByEmailNormalized(User.normalizeEmail(email))) {
+      return true;
+    }
+    emailFilter.recordFalsePositive();
+    return false;
+  }
+
+  /**
+   * converts a violation of the unique email key to a bad
+   * request. Other violations, as a clash of users_pkey,
+   * are not the client's fault and are rethrown
+   * @param exception exception raised by the insert
+   * @param message message of the bad request
+   * @return exception to throw
+   */
+  private RuntimeException translateUniqueViolation(DataIntegrityViolationException exception, String message) {
+    PSQLException psqlException = psqlException(exception);
+    ServerErrorMessage error = psqlException == null ? null : psqlException.getServerErrorMessage();
+    if (error != null && UNIQUE_VIOLATION.equals(error.getSQLState())
+        && EMAIL_UNIQUE_KEY.equals(error.getConstraint())) {
+      return new UserExceptions.BadRequestException(message, Errors.USER_ALREADY_EXISTS);
+    }
+    return exception;
+  }
+
+  /**
+   * postgresql error of the cause chain, a failed jdbc
+   * batch carries it as its next exception
+   */
+  private static PSQLException psqlException(Throwable exception) {
+    for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+      if (cause instanceof PSQLException) {
+        return (PSQLException) cause;
+      }
+      if (cause instanceof SQLException && ((SQLException) cause).getNextException() instanceof PSQLException) {
+        return (PSQLException) ((SQLException) cause).getNextException();
+      }
+    }
+    return null;
+  }
+
+  static String alreadyExistsMessage(String email) {
+    return "Email [" + email + "] already exists.";
+  }
+
+  static String underAgeMessage(LocalDate dateOfBirth) {
+    return "Age [" + calculateAge(dateOfBirth) + "] is below 18. Only 18 and above users can register.";
+  }
+
   /**
    * calculates age in years
    * @param dateOfBirth input
    * @return total age
    */
-  private int calculateAge(LocalDate dateOfBirth) {
+  static int calculateAge(LocalDate dateOfBirth) {
     return Period.between(dateOfBirth, LocalDate.now()).getYears();
 
   }
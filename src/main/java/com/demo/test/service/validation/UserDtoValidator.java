@@ -0,0 +1,170 @@
+package com.demo.test.service.validation;
+
+import com.demo.test.dto.UserDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * validates a UserDto against the constraints declared
+ * on its fields. In scan mode the rules are checked with
+ * character scans and a valid dto is validated without
+ * allocating. Only the fields the scans reject go through
+ * bean validation, which reports their violations
+ */
+@Component
+public class UserDtoValidator {
+
+  private final Validator validator;
+  private final ValidationMode validationMode;
+
+  @Autowired
+  public UserDtoValidator(Validator validator, @Value("${user.validation.mode}") ValidationMode validationMode) {
+    this.validator = validator;
+    this.validationMode = validationMode;
+  }
+
+  /**
+   * @param userDto external input
+   * @return violations, empty if the dto is valid
+   */
+  public Set<ConstraintViolation<UserDto>> validate(UserDto userDto) {
+    if (validationMode == ValidationMode.ANNOTATIONS) {
+      return validator.validate(userDto);
+    }
+    Set<ConstraintViolation<UserDto>> violations = Collections.emptySet();
+
+    String firstName = userDto.getFirstName();
+    if (isBlank(firstName) || !isLettersOrSpaces(firstName) || firstName.length() > 30) {
+      violations = add(violations, "firstName", firstName);
+    }
+
+    String lastName = userDto.getLastName();
+    if (isBlank(lastName) || !isLettersOrSpaces(lastName) || lastName.length() > 30) {
+      violations = add(violations, "lastName", lastName);
+    }
+
+    String dateOfBirth = userDto.getDateOfBirth();
+    if (isBlank(dateOfBirth) || !isDate(dateOfBirth)) {
+      violations = add(violations, "dateOfBirth", dateOfBirth);
+    }
+
+    String email = userDto.getEmail();
+    if (isBlank(email) || !isEmail(email) || email.length() > 100) {
+      violations = add(violations, "email", email);
+    }
+
+    String password = userDto.getPassword();
+    if (isBlank(password) || password.length() > 100) {
+      violations = add(violations, "password", password);
+    }
+
+    String sex = userDto.getSex();
+    if (isBlank(sex) || !equalsIgnoreAsciiCase(sex, "male") && !equalsIgnoreAsciiCase(sex, "female")) {
+      violations = add(violations, "sex", sex);
+    }
+
+    String country = userDto.getCountry();
+    if (isBlank(country) || !equalsIgnoreAsciiCase(country, "france")) {
+      violations = add(violations, "country", country);
+    }
+
+    String phoneNumber = userDto.getPhoneNumber();
+    if (phoneNumber != null && !phoneNumber.isEmpty()
+        && !(phoneNumber.length() == 10 && isDigits(phoneNumber, 0, 10))) {
+      violations = add(violations, "phoneNumber", phoneNumber);
+    }
+    return violations;
+  }
+
+  /**
+   * adds the violations of a field the scans rejected,
+   * reported by bean validation of that field only
+   */
+  private Set<ConstraintViolation<UserDto>> add(Set<ConstraintViolation<UserDto>> violations, String field,
+                                                String value) {
+    Set<ConstraintViolation<UserDto>> result = violations.isEmpty() ? new HashSet<>() : violations;
+    result.addAll(validator.validateValue(UserDto.class, field, value));
+    return result;
+  }
+
+  // @NotBlank: null or only chars trimmed by String.trim
+  private static boolean isBlank(String value) {
+    if (value == null) {
+      return true;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // [A-Za-z ]+
+  private static boolean isLettersOrSpaces(String value) {
+    if (value.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c != ' ' && !(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // ([0-9]{2})-([0-9]{2})-([0-9]{4})
+  private static boolean isDate(String value) {
+    return value.length() == 10 && isDigits(value, 0, 2) && value.charAt(2) == '-' && isDigits(value, 3, 2)
+        && value.charAt(5) == '-' && isDigits(value, 6, 4);
+  }
+
+  // ^(.+)@(.+)$ : an @ with a char before and after it, no line terminator
+  private static boolean isEmail(String value) {
+    boolean separator = false;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+        return false;
+      }
+      separator |= c == '@' && i > 0 && i < value.length() - 1;
+    }
+    return separator;
+  }
+
+  // \d{count} at offset, ascii digits only
+  private static boolean isDigits(String value, int offset, int count) {
+    for (int i = offset; i < offset + count; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // (?i) without unicode case, only ascii letters fold
+  private static boolean equalsIgnoreAsciiCase(String value, String lowerCase) {
+    if (value.length() != lowerCase.length()) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        c += 'a' - 'A';
+      }
+      if (c != lowerCase.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
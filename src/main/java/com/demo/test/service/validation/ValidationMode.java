@@ -0,0 +1,16 @@
+package com.demo.test.service.validation;
+
+/**
+ * how a UserDto is validated
+ */
+public enum ValidationMode {
+  /**
+   * bean validation of the UserDto annotations
+   */
+  ANNOTATIONS,
+  /**
+   * the same rules checked by scanning the
+   * characters, without regexes or reflection
+   */
+  SCAN
+}
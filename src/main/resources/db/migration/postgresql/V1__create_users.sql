@@ -0,0 +1,19 @@
+-- users table as the schema update of hibernate created it before the
+-- migrations. Databases created that way are baselined at this version
+create sequence users_seq start 1 increment 50;
+
+create table users (
+  id bigint not null,
+  country varchar(255) not null,
+  date_of_birth date not null,
+  email varchar(255) not null,
+  enabled boolean not null,
+  first_name varchar(255) not null,
+  last_name varchar(255) not null,
+  locked boolean not null,
+  password varchar(255) not null,
+  phone_number varchar(255),
+  sex integer not null,
+  constraint users_pkey primary key (id),
+  constraint users_email_key unique (email)
+);
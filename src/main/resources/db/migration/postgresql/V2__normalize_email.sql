@@ -0,0 +1,23 @@
+-- lower-cased email of the users, unique. Runs after V1 on a new database
+-- and after the baseline on a database created by the schema update
+alter table users add column email_normalized varchar(255);
+
+update users set email_normalized = lower(email);
+
+do $$
+begin
+  if exists (select 1 from users group by email_normalized having count(*) > 1) then
+    raise exception 'users registered with emails differing only by case must be merged first: %',
+      (select string_agg(email_normalized, ', ')
+       from (select email_normalized from users group by email_normalized having count(*) > 1 limit 10) duplicates);
+  end if;
+end
+$$;
+
+alter table users alter column email_normalized set not null;
+
+-- named as the unique key hibernate derives from the natural id of User, the
+-- schema update finds it and adds no other. It was on email while email was
+-- the natural id, the unique constraint of the email column stays
+alter table users drop constraint if exists uk_sx468g52bpetvlad2j9y0lptc;
+alter table users add constraint uk_sx468g52bpetvlad2j9y0lptc unique (email_normalized);
@@ -0,0 +1,9 @@
+-- the indexes of users, one per query path, named after what they serve:
+--   users_pkey                  findById, keyset pages of the export
+--   users_email_normalized_key  findByEmail, the duplicate checks, the email filter rebuild
+-- The unique constraint on the raw email is dropped, the normalized one already
+-- rejects equal emails and no query reads the raw column by value.
+-- Databases created by the schema update carry the names hibernate derived
+alter table users drop constraint if exists uk_6dotkott2kjsp8vw4d0m25fb7;
+alter table users drop constraint if exists users_email_key;
+alter table users rename constraint uk_sx468g52bpetvlad2j9y0lptc to users_email_normalized_key;
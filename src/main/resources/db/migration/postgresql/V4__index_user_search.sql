@@ -0,0 +1,11 @@
+-- indexes of the user search, pages in id order with optional filters:
+--   users_country_sex_id_idx    country, country and sex, compared in lower case
+--   users_date_of_birth_id_idx  date of birth ranges
+--   users_locked_id_idx         locked users, few of all, already in id order
+--   users_disabled_id_idx       disabled users, likewise
+-- Filters matching most users, as enabled or not locked, walk users_pkey
+-- in id order and stop once the page is full
+create index users_country_sex_id_idx on users (lower(country), sex, id);
+create index users_date_of_birth_id_idx on users (date_of_birth, id);
+create index users_locked_id_idx on users (id) where locked;
+create index users_disabled_id_idx on users (id) where not enabled;
@@ -0,0 +1,10 @@
+-- ids of User come from users_seq with the pooled optimizer of hibernate,
+-- a nextval v hands out the block [v-49, v]. Databases baselined at V1 never
+-- ran it and have no users_seq, their ids came from hibernate_sequence.
+-- The next value is moved to max(id) + 50 so the first block starts above
+-- the existing ids, never backwards of blocks already handed out
+create sequence if not exists users_seq start 1 increment 50;
+
+select setval('users_seq', greatest(
+  (select coalesce(max(id), 0) + 50 from users),
+  (select last_value + case when is_called then 50 else 0 end from users_seq)), false);
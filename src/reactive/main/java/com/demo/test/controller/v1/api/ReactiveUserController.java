@@ -0,0 +1,72 @@
+package com.demo.test.controller.v1.api;
+
+import com.demo.test.config.Swagger2Config;
+import com.demo.test.dto.UserDto;
+import com.demo.test.model.User;
+import com.demo.test.service.user.ReactiveUserService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.constraints.Min;
+import java.util.Optional;
+
+/**
+ * user api on WebFlux, active with the reactive profile.
+ * Same contract as UserController for /register and
+ * /users/{id}, the database is called over r2dbc and
+ * no thread waits for it
+ */
+@RestController
+@RequestMapping("/v1")
+@Api(value = Swagger2Config.TITLE, tags = {Swagger2Config.PROJECT_DESCRIPTION})
+@Validated
+@Profile("reactive")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+  private final ReactiveUserService reactiveUserService;
+  private final UserResponses userResponses;
+
+  @Autowired
+  public ReactiveUserController(ReactiveUserService reactiveUserService, UserResponses userResponses) {
+    this.reactiveUserService = reactiveUserService;
+    this.userResponses = userResponses;
+  }
+
+  /**
+   * registers a user in the database after
+   * performing validations on it
+   * @param userDto external input received in call
+   * @param version request parameter used for version
+   * @return user if registration was successful
+   */
+  @PostMapping("/register")
+  @ApiOperation(value = "Registers-a-user", notes = "Registers a user and returns the registered user.")
+  public Mono<ResponseEntity<Object>> registerUser(@RequestBody UserDto userDto, @RequestParam(name = "version",
+      required = false, defaultValue = "v1") String version) {
+    userResponses.validate(userDto);
+    User user = reactiveUserService.toUser(userDto);
+
+    return reactiveUserService.registerUser(user).map(userResponses::registered);
+  }
+
+  /**
+   * retrieves a user based on input id
+   * @param id pathVariable received in request
+   * @return user object if found
+   */
+  @GetMapping("/users/{id}")
+  @ApiOperation(value = "Return-user-by-id", notes = "Returns a user found by the input {id}")
+  public Mono<ResponseEntity<Object>> getUser(@PathVariable(name = "id")
+      @Min(value = 0, message = "id cannot be negative") Long id) {
+    return reactiveUserService.getUser(id).map(Optional::of).defaultIfEmpty(Optional.empty())
+        .map(user -> userResponses.found(id, user));
+  }
+}
@@ -0,0 +1,82 @@
+package com.demo.test.exceptions;
+
+import com.demo.test.dto.ApiErrorDto;
+import com.demo.test.service.timestamp.TimestampService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * exception handler of the reactive profile, answers
+ * with the same statuses and error numbers as the
+ * servlet RestExceptionHandler
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+  private final TimestampService timestampService;
+
+  @Autowired
+  public ReactiveExceptionHandler(TimestampService timestampService) {
+    this.timestampService = timestampService;
+  }
+
+  @ExceptionHandler(value = {UserExceptions.BadRequestException.class, UserExceptions.InternalServerException.class})
+  public ResponseEntity<Object> handleCustomBadRequestException(BaseException baseException) {
+    return response(HttpStatus.BAD_REQUEST, baseException.getInternalError(),
+        Collections.singletonList(baseException.getMessage()), baseException.getLocalizedMessage());
+  }
+
+  @ExceptionHandler(value = UserExceptions.InvalidBodyException.class)
+  public ResponseEntity<Object> handleInvalidBodyException(UserExceptions.InvalidBodyException invalidBodyException) {
+    List<String> errorMessages = invalidBodyException.getConstraintViolations().stream()
+        .map(ConstraintViolation::getMessage).collect(Collectors.toList());
+    return response(HttpStatus.BAD_REQUEST, Errors.CONSTRAINT_VIOLATION, errorMessages, null);
+  }
+
+  @ExceptionHandler(value = ConstraintViolationException.class)
+  public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException
+                                                                       constraintViolationException) {
+    List<String> errorMessages = constraintViolationException.getConstraintViolations().stream()
+        .map(ConstraintViolation::getMessage).collect(Collectors.toList());
+    return response(HttpStatus.BAD_REQUEST, Errors.CONSTRAINT_VIOLATION, errorMessages,
+        constraintViolationException.getLocalizedMessage());
+  }
+
+  /**
+   * unreadable body or path variable
+   */
+  @ExceptionHandler(value = ServerWebInputException.class)
+  public ResponseEntity<Object> handleServerWebInputException(ServerWebInputException serverWebInputException) {
+    return response(HttpStatus.BAD_REQUEST, Errors.UNKNOWN_BAD_REQUEST,
+        Collections.singletonList(serverWebInputException.getReason()), null);
+  }
+
+  @ExceptionHandler(value = Exception.class)
+  public ResponseEntity<Object> handle(Exception ex) {
+    if (ex instanceof NullPointerException) {
+      return response(HttpStatus.BAD_REQUEST, Errors.UNKNOWN_BAD_REQUEST,
+          Collections.singletonList(ex.getMessage()), null);
+    }
+    return response(HttpStatus.INTERNAL_SERVER_ERROR, Errors.UNKNOWN_INTERNAL_SERVER_ERROR,
+        Collections.singletonList(ex.getMessage()), null);
+  }
+
+  private ResponseEntity<Object> response(HttpStatus status, int errorNumber, List<String> messages,
+                                          String debugMessage) {
+    ApiErrorDto apiErrorDto = ApiErrorDto.builder().status(status).errorNumber(errorNumber)
+        .timeStamp(timestampService.now()).messages(messages).debugMessage(debugMessage).build();
+    return new ResponseEntity<>(apiErrorDto, status);
+  }
+}
@@ -0,0 +1,43 @@
+package com.demo.test.repository;
+
+import java.util.OptionalLong;
+
+/**
+ * ids of users_seq handed out as the pooled optimizer of
+ * hibernate does for the jpa mapping of User: a nextval v
+ * reserves the block [v - allocationSize + 1, v], so the
+ * reactive and jpa inserts share the sequence without
+ * overlapping blocks. A value below the allocation size is
+ * the start of a sequence V5 did not move, hibernate would
+ * start its block at 1 there, it is skipped
+ */
+class PooledIds {
+
+  private final int allocationSize;
+  private long next;
+  private long last = -1;
+
+  PooledIds(int allocationSize) {
+    this.allocationSize = allocationSize;
+  }
+
+  /**
+   * @return next id of the current block, empty once
+   *         the block is used up
+   */
+  synchronized OptionalLong next() {
+    return next <= last ? OptionalLong.of(next++) : OptionalLong.empty();
+  }
+
+  /**
+   * starts the block of a sequence value, the rest of
+   * the current block is left unused
+   * @param sequenceValue value returned by nextval
+   */
+  synchronized void reserve(long sequenceValue) {
+    if (sequenceValue >= allocationSize) {
+      next = sequenceValue - allocationSize + 1;
+      last = sequenceValue;
+    }
+  }
+}
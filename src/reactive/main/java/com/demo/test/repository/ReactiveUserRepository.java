@@ -0,0 +1,128 @@
+package com.demo.test.repository;
+
+import com.demo.test.model.Sex;
+import com.demo.test.model.User;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.OptionalLong;
+
+/**
+ * non-blocking access to the users table over r2dbc,
+ * used by the reactive profile. Reads and writes the
+ * same columns as the jpa mapping of User
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+  private static final String COLUMNS = "id, first_name, last_name, date_of_birth, email, password, sex, country, "
+      + "phone_number, enabled, locked";
+  private static final String SELECT_COLUMNS = COLUMNS + ", email_normalized";
+
+  private static final String INSERT = "insert into users (" + COLUMNS + ", email_normalized) values ("
+      + ":id, :firstName, :lastName, :dateOfBirth, :email, :password, :sex, :country, :phoneNumber, "
+      + ":enabled, :locked, :emailNormalized)";
+
+  private final DatabaseClient databaseClient;
+  /**
+   * ids come from the sequence of the jpa mapping, in
+   * blocks of its allocation size as hibernate takes them
+   */
+  private final PooledIds ids = new PooledIds(User.ALLOCATION_SIZE);
+
+  @Autowired
+  public ReactiveUserRepository(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  /**
+   * @param id user id
+   * @return user or empty if not found
+   */
+  public Mono<User> findById(long id) {
+    return databaseClient.sql("select " + SELECT_COLUMNS + " from users where id = :id").bind("id", id)
+        .map((row, metadata) -> toUser(row)).one();
+  }
+
+  /**
+   * checks an email without loading the user, answered
+   * from the unique index on the normalized email
+   * @param email email to look up, in any case
+   * @return true if the email is registered
+   */
+  public Mono<Boolean> existsByEmail(String email) {
+    return databaseClient.sql("select 1 from users where email_normalized = :email limit 1")
+        .bind("email", User.normalizeEmail(email))
+        .map((row, metadata) -> Boolean.TRUE).one().defaultIfEmpty(Boolean.FALSE);
+  }
+
+  /**
+   * inserts the user and sets its generated id
+   * @param user user to insert
+   * @return inserted user
+   */
+  public Mono<User> insert(User user) {
+    user.setEmailNormalized(User.normalizeEmail(user.getEmail()));
+    return nextId().flatMap(id -> {
+      user.setId(id);
+      return insertWithId(user);
+    });
+  }
+
+  /**
+   * next id of the reserved block, a new block is
+   * reserved with one nextval once it is used up
+   */
+  private Mono<Long> nextId() {
+    return Mono.defer(() -> {
+      OptionalLong id = ids.next();
+      if (id.isPresent()) {
+        return Mono.just(id.getAsLong());
+      }
+      return databaseClient.sql("select nextval('users_seq')").map((row, metadata) -> row.get(0, Long.class)).one()
+          .doOnNext(ids::reserve).then(nextId());
+    });
+  }
+
+  private Mono<User> insertWithId(User user) {
+    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT)
+        .bind("id", user.getId())
+        .bind("firstName", user.getFirstName())
+        .bind("lastName", user.getLastName())
+        .bind("dateOfBirth", user.getDateOfBirth())
+        .bind("email", user.getEmail())
+        .bind("password", user.getPassword())
+        .bind("sex", user.getSex().ordinal())
+        .bind("country", user.getCountry())
+        .bind("enabled", user.isEnabled())
+        .bind("locked", user.isLocked())
+        .bind("emailNormalized", user.getEmailNormalized());
+    spec = user.getPhoneNumber() != null ? spec.bind("phoneNumber", user.getPhoneNumber())
+        : spec.bindNull("phoneNumber", String.class);
+    return spec.then().thenReturn(user);
+  }
+
+  private static User toUser(Row row) {
+    Integer sex = row.get("sex", Integer.class);
+    return User.builder()
+        .id(row.get("id", Long.class))
+        .firstName(row.get("first_name", String.class))
+        .lastName(row.get("last_name", String.class))
+        .dateOfBirth(row.get("date_of_birth", LocalDate.class))
+        .email(row.get("email", String.class))
+        .emailNormalized(row.get("email_normalized", String.class))
+        .password(row.get("password", String.class))
+        .sex(sex != null ? Sex.values()[sex] : null)
+        .country(row.get("country", String.class))
+        .phoneNumber(row.get("phone_number", String.class))
+        .enabled(Boolean.TRUE.equals(row.get("enabled", Boolean.class)))
+        .locked(Boolean.TRUE.equals(row.get("locked", Boolean.class)))
+        .build();
+  }
+}
@@ -0,0 +1,119 @@
+package com.demo.test.service.user;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.exceptions.UserExceptions;
+import com.demo.test.model.User;
+import com.demo.test.repository.ReactiveUserRepository;
+import com.demo.test.service.mapper.Mapper;
+import io.r2dbc.postgresql.api.PostgresqlException;
+import io.r2dbc.spi.R2dbcException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * non-blocking counterpart of UserServiceImpl for the
+ * reactive profile, same rules and error codes. The email
+ * filter and the user cache are in memory and shared with
+ * the blocking services
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+
+  private final ReactiveUserRepository reactiveUserRepository;
+  private final Mapper mapper;
+  private final UserCache userCache;
+  private final EmailFilter emailFilter;
+  private final RegistrationMode registrationMode;
+
+  @Autowired
+  public ReactiveUserService(ReactiveUserRepository reactiveUserRepository, Mapper mapper, UserCache userCache,
+                             EmailFilter emailFilter,
+                             @Value("${user.registration.mode}") RegistrationMode registrationMode) {
+    this.reactiveUserRepository = reactiveUserRepository;
+    this.mapper = mapper;
+    this.userCache = userCache;
+    this.emailFilter = emailFilter;
+    this.registrationMode = registrationMode;
+  }
+
+  /**
+   * registers a user, see UserServiceImpl.registerUser
+   * @param user input object of type User
+   * @return registered user, or an error with a
+   *         BadRequestException if the email exists
+   *         or the user is under age
+   */
+  public Mono<User> registerUser(User user) {
+    return exists(user.getEmail()).flatMap(exists -> {
+      if (exists) {
+        return Mono.error(new UserExceptions.BadRequestException(
+            UserServiceImpl.alreadyExistsMessage(user.getEmail()), Errors.USER_ALREADY_EXISTS));
+      }
+      if (UserServiceImpl.calculateAge(user.getDateOfBirth()) < 18) {
+        return Mono.error(new UserExceptions.BadRequestException(
+            UserServiceImpl.underAgeMessage(user.getDateOfBirth()), Errors.UNDER_AGE));
+      }
+      user.setPassword(UserServiceImpl.encryptPassword(user.getPassword()));
+      return reactiveUserRepository.insert(user);
+    }).onErrorMap(DataIntegrityViolationException.class, exception -> translateUniqueViolation(exception,
+        UserServiceImpl.alreadyExistsMessage(user.getEmail())))
+        .doOnNext(registeredUser -> {
+          emailFilter.put(registeredUser.getEmail());
+          userCache.put(registeredUser);
+        });
+  }
+
+  /**
+   * finds a user by id, from cache
+   * if it was recently read
+   * @param id input id
+   * @return user or empty if id does not exist
+   */
+  public Mono<User> getUser(long id) {
+    User cachedUser = userCache.getIfPresent(id);
+    if (cachedUser != null) {
+      return Mono.just(cachedUser);
+    }
+    return reactiveUserRepository.findById(id).doOnNext(userCache::put);
+  }
+
+  public User toUser(UserDto userDto) {
+    return mapper.toUser(userDto);
+  }
+
+  private Mono<Boolean> exists(String email) {
+    if (registrationMode != RegistrationMode.CHECK || !emailFilter.mightContain(email)) {
+      return Mono.just(false);
+    }
+    if (userCache.containsEmail(email)) {
+      return Mono.just(true);
+    }
+    return reactiveUserRepository.existsByEmail(email).doOnNext(exists -> {
+      if (!exists) {
+        emailFilter.recordFalsePositive();
+      }
+    });
+  }
+
+  /**
+   * converts a violation of the unique email key to a bad
+   * request, see UserServiceImpl.translateUniqueViolation
+   */
+  private Throwable translateUniqueViolation(DataIntegrityViolationException exception, String message) {
+    for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+      if (cause instanceof R2dbcException && cause instanceof PostgresqlException
+          && UserServiceImpl.UNIQUE_VIOLATION.equals(((R2dbcException) cause).getSqlState())
+          && ((PostgresqlException) cause).getErrorDetails().getConstraintName()
+          .filter(UserServiceImpl.EMAIL_UNIQUE_KEY::equals).isPresent()) {
+        return new UserExceptions.BadRequestException(message, Errors.USER_ALREADY_EXISTS);
+      }
+    }
+    return exception;
+  }
+}
@@ -0,0 +1,30 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.TestApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * load of the LoadHarness against the servlet or the reactive
+ * user api, 20% registrations. Needs the database of
+ * application.properties, r2dbc has no H2 stand-in here.
+ * Run one mode per jvm, after mvn test-compile:
+ * java -cp target/test-classes:target/classes:<test classpath>
+ *   com.demo.test.benchmark.ReactiveLoadBenchmark servlet|reactive [concurrency] [seconds]
+ */
+public class ReactiveLoadBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    String mode = args.length > 0 ? args[0] : "reactive";
+    int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+    SpringApplicationBuilder builder = new SpringApplicationBuilder(TestApplication.class);
+    if ("reactive".equals(mode)) {
+      builder.profiles("reactive");
+    }
+    try (ConfigurableApplicationContext context = builder.run("--server.port=0")) {
+      LoadHarness.run(mode, LoadHarness.baseUri(context), concurrency, seconds, 20);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.demo.test.controller.v1.api;
+
+import com.demo.test.dto.ApiSuccessDto;
+import com.demo.test.dto.UserDto;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.exceptions.UserExceptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+class ReactiveUserControllerTest {
+
+  @Autowired
+  private ReactiveUserController reactiveUserController;
+
+  @Test
+  void registerUser_whenNewEmail_thenReturnCreatedUserTest() {
+    String email = "reactive-" + UUID.randomUUID() + "@gmail.com";
+
+    ResponseEntity<Object> responseEntity = reactiveUserController.registerUser(getUserDto(email), "v1").block();
+
+    assertEquals(HttpStatus.CREATED, Objects.requireNonNull(responseEntity).getStatusCode());
+    assertEquals(email, ((UserDto) ((ApiSuccessDto) responseEntity.getBody()).getObject()).getEmail());
+  }
+
+  @Test
+  void registerUser_whenEmailExists_thenThrowBadRequestExceptionTest() {
+    String email = "reactive-" + UUID.randomUUID() + "@gmail.com";
+    reactiveUserController.registerUser(getUserDto(email), "v1").block();
+
+    UserExceptions.BadRequestException exception = assertThrows(UserExceptions.BadRequestException.class,
+        () -> reactiveUserController.registerUser(getUserDto(email), "v1").block());
+
+    assertEquals(Errors.USER_ALREADY_EXISTS, exception.getInternalError());
+  }
+
+  @Test
+  void getUser_whenRegistered_thenReturnUserTest() {
+    String email = "reactive-" + UUID.randomUUID() + "@gmail.com";
+    ResponseEntity<Object> registered = reactiveUserController.registerUser(getUserDto(email), "v1").block();
+    String resourceUri = ((ApiSuccessDto) Objects.requireNonNull(registered).getBody()).getResourceUri();
+    long id = Long.parseLong(resourceUri.substring(resourceUri.lastIndexOf('/') + 1));
+
+    ResponseEntity<Object> responseEntity = reactiveUserController.getUser(id).block();
+
+    assertEquals(HttpStatus.OK, Objects.requireNonNull(responseEntity).getStatusCode());
+    assertEquals(email, ((UserDto) ((ApiSuccessDto) responseEntity.getBody()).getObject()).getEmail());
+  }
+
+  @Test
+  void getUser_whenIdDoesNotExist_thenThrowBadRequestExceptionTest() {
+    UserExceptions.BadRequestException exception = assertThrows(UserExceptions.BadRequestException.class,
+        () -> reactiveUserController.getUser(Long.MAX_VALUE).block());
+
+    assertEquals(Errors.USER_DOEST_EXISTS, exception.getInternalError());
+  }
+
+  private UserDto getUserDto(String email) {
+    return UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email(email).sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+  }
+}
@@ -0,0 +1,34 @@
+package com.demo.test.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledIdsTest {
+
+  private final PooledIds ids = new PooledIds(50);
+
+  @Test
+  void next_whenNoBlockReserved_thenEmptyTest() {
+    assertFalse(ids.next().isPresent());
+  }
+
+  @Test
+  void next_whenBlockReserved_thenHandOutBlockBelowSequenceValueTest() {
+    ids.reserve(150);
+
+    for (long id = 101; id <= 150; id++) {
+      assertEquals(OptionalLong.of(id), ids.next());
+    }
+    assertFalse(ids.next().isPresent());
+  }
+
+  @Test
+  void reserve_whenSequenceValueBelowAllocationSize_thenSkipTest() {
+    ids.reserve(1);
+
+    assertFalse(ids.next().isPresent());
+  }
+}
@@ -1,13 +1,26 @@
 package com.demo.test;
 
+import com.demo.test.service.async.DatabaseExecutor;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 class TestApplicationTests {
 
+	@Autowired
+	private ApplicationContext applicationContext;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void contextLoads_whenAsyncDisabled_thenNoDatabaseExecutorTest() {
+		assertNull(applicationContext.getBeanProvider(DatabaseExecutor.class).getIfAvailable());
+	}
+
 }
@@ -0,0 +1,72 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.logging.AsyncLogOverflowPolicy;
+import com.demo.test.metrics.LatencyHistogram;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * measures the latency seen by the logging threads with the
+ * synchronous file appender and with the async loggers.
+ * Run one configuration per jvm, after mvn test-compile:
+ * java -cp target/test-classes:target/classes:<test classpath>
+ *   com.demo.test.benchmark.AsyncLoggingBenchmark sync|async [threads] [events per thread]
+ */
+public class AsyncLoggingBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    String mode = args.length > 0 ? args[0] : "async";
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+    int events = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+    File logFile = File.createTempFile("logging-benchmark", ".log");
+    logFile.deleteOnExit();
+    System.setProperty("LOG_FILE", logFile.getAbsolutePath());
+    LoggerContext context = Configurator.initialize("benchmark", "benchmark/log4j2-" + mode + ".xml");
+    Logger logger = context.getLogger(AsyncLoggingBenchmark.class.getName());
+
+    run(logger, threads, events / 10);
+    LatencyHistogram histogram = new LatencyHistogram();
+    long start = System.nanoTime();
+    run(logger, threads, events, histogram);
+    long elapsed = System.nanoTime() - start;
+    Configurator.shutdown(context);
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    System.out.printf("%s: %d threads, %d events, %.0f events/s, latency ns p50=%d p99=%d p99.9=%d max=%d,"
+            + " ring buffer full=%d dropped=%d%n", mode, threads, snapshot.getCount(),
+        snapshot.getCount() * 1e9 / elapsed, snapshot.quantile(0.5), snapshot.quantile(0.99),
+        snapshot.quantile(0.999), snapshot.getMax(), AsyncLogOverflowPolicy.getQueueFullCount(),
+        AsyncLogOverflowPolicy.getDroppedCount());
+  }
+
+  private static void run(Logger logger, int threads, int events) throws Exception {
+    run(logger, threads, events, new LatencyHistogram());
+  }
+
+  private static void run(Logger logger, int threads, int events, LatencyHistogram histogram) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < events; i++) {
+          long start = System.nanoTime();
+          logger.info("POST /v1/register/user {} took {} micros", i, 1234);
+          histogram.record(System.nanoTime() - start);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,23 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.dto.UserDto;
+
+/**
+ * request payloads shared by the benchmarks
+ */
+final class BenchmarkData {
+
+  private BenchmarkData() { }
+
+  static UserDto userDto() {
+    return UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email("waqas@gmail.com").sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+  }
+
+  static UserDto invalidUserDto() {
+    return UserDto.builder().firstName("waqas1").lastName("").dateOfBirth("10-10-1985")
+        .password("******").email("waqas.gmail.com").sex("MALE").country("france").phoneNumber("098179")
+        .build();
+  }
+}
@@ -0,0 +1,72 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.service.mapper.DateParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * date of birth parsing: the formatter built on every call
+ * as Mapper used to, a cached formatter and the date parser.
+ * After mvn test-compile:
+ * java -cp target/test-classes:target/classes:<test classpath>
+ *   org.openjdk.jmh.Main DateOfBirthParserBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateOfBirthParserBenchmark {
+
+  private static final String PATTERN = "dd-MM-yyyy";
+
+  @Param({"10-10-1985", "32-01-1980"})
+  public String dateOfBirth;
+
+  private DateTimeFormatter dateTimeFormatter;
+  private DateParser dateParser;
+
+  @Setup
+  public void setUp() {
+    dateTimeFormatter = DateTimeFormatter.ofPattern(PATTERN);
+    dateParser = DateParser.of(PATTERN);
+  }
+
+  @Benchmark
+  public LocalDate formatterPerCall() {
+    try {
+      return LocalDate.parse(dateOfBirth, DateTimeFormatter.ofPattern(PATTERN));
+    } catch (DateTimeParseException dateTimeParseException) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public LocalDate cachedFormatter() {
+    try {
+      return LocalDate.parse(dateOfBirth, dateTimeFormatter);
+    } catch (DateTimeParseException dateTimeParseException) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public LocalDate dateParser() {
+    return dateParser.parse(dateOfBirth);
+  }
+}
@@ -0,0 +1,107 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.dto.ApiErrorDto;
+import com.demo.test.exceptions.ApiErrorDtoSerializer;
+import com.demo.test.exceptions.BaseException;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.exceptions.UserExceptions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * an invalid request on every call: a business exception thrown
+ * from deep in the stack, caught and serialized as the error
+ * response. Exceptions capturing their stack trace with the default
+ * serializer, as before, against stackless exceptions with the
+ * template serializer. After mvn test-compile:
+ * java -cp target/test-classes:target/classes:<test classpath>
+ *   org.openjdk.jmh.Main ErrorPathBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ErrorPathBenchmark {
+
+  /**
+   * frames between the controller and the servlet container
+   */
+  @Param({"100"})
+  public int depth;
+
+  private ObjectMapper defaultObjectMapper;
+  private ObjectMapper templateObjectMapper;
+
+  @Setup
+  public void setUp() {
+    defaultObjectMapper = new ObjectMapper();
+    templateObjectMapper = new ObjectMapper().registerModule(new SimpleModule()
+        .addSerializer(ApiErrorDto.class, new ApiErrorDtoSerializer()));
+  }
+
+  @Benchmark
+  public String stackTraceAndDefaultSerializer() throws JsonProcessingException {
+    try {
+      throwAt(depth, true);
+      return null;
+    } catch (BaseException baseException) {
+      return defaultObjectMapper.writeValueAsString(toApiErrorDto(baseException));
+    }
+  }
+
+  @Benchmark
+  public String stacklessAndTemplateSerializer() throws JsonProcessingException {
+    try {
+      throwAt(depth, false);
+      return null;
+    } catch (BaseException baseException) {
+      return templateObjectMapper.writeValueAsString(toApiErrorDto(baseException));
+    }
+  }
+
+  private static void throwAt(int depth, boolean stackTrace) {
+    if (depth > 0) {
+      throwAt(depth - 1, stackTrace);
+      return;
+    }
+    String message = "User with id [42] does not exists";
+    throw stackTrace ? new StackTraceException(message, Errors.USER_DOEST_EXISTS)
+        : new UserExceptions.BadRequestException(message, Errors.USER_DOEST_EXISTS);
+  }
+
+  private static ApiErrorDto toApiErrorDto(BaseException baseException) {
+    return ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST).errorNumber(baseException.getInternalError())
+        .timeStamp("18-10-2026 10:00:00").messages(Collections.singletonList(baseException.getMessage()))
+        .debugMessage(baseException.getLocalizedMessage()).build();
+  }
+
+  /**
+   * business exception as it was, capturing its stack trace
+   */
+  private static class StackTraceException extends BaseException {
+
+    StackTraceException(String message, int internalError) {
+      super(message, internalError, true);
+    }
+  }
+}
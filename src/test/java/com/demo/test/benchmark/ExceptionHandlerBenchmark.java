@@ -0,0 +1,79 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.exceptions.RestExceptionHandler;
+import com.demo.test.exceptions.UserExceptions;
+import com.demo.test.logging.PayloadLogger;
+import com.demo.test.service.timestamp.TimestampService;
+import com.demo.test.service.validation.UserDtoValidator;
+import com.demo.test.service.validation.ValidationMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * error responses built by RestExceptionHandler, without the
+ * payload log which is sampled out. Run with the benchmark profile:
+ * mvn -Pbenchmark verify -Dbenchmark=ExceptionHandlerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+  private RestExceptionHandler restExceptionHandler;
+  private UserExceptions.BadRequestException badRequestException;
+  private ConstraintViolationException constraintViolationException;
+  private NullPointerException nullPointerException;
+
+  @Setup
+  public void setUp() {
+    PayloadLogger payloadLogger = new PayloadLogger(new ObjectMapper(), 0, Collections.emptyMap(), 0, 2048,
+        Collections.singletonList("password"));
+    restExceptionHandler = new RestExceptionHandler(new TimestampService("dd-MM-yyyy HH:mm:ss"), payloadLogger);
+    badRequestException = new UserExceptions.BadRequestException("User with id [42] does not exists",
+        Errors.USER_DOEST_EXISTS);
+    try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      Set<ConstraintViolation<UserDto>> violations = new UserDtoValidator(validatorFactory.getValidator(),
+          ValidationMode.SCAN).validate(BenchmarkData.invalidUserDto());
+      constraintViolationException = new ConstraintViolationException(violations);
+    }
+    nullPointerException = new NullPointerException("Null pointer exception");
+  }
+
+  @Benchmark
+  public ResponseEntity<Object> badRequest() {
+    return restExceptionHandler.handleCustomBadRequestException(badRequestException);
+  }
+
+  @Benchmark
+  public ResponseEntity<Object> constraintViolation() {
+    return restExceptionHandler.handleConstraintViolationException(constraintViolationException);
+  }
+
+  @Benchmark
+  public ResponseEntity<Object> unexpected() {
+    return restExceptionHandler.handle(nullPointerException, null, null);
+  }
+}
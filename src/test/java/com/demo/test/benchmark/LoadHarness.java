@@ -0,0 +1,167 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.TestApplication;
+import com.demo.test.metrics.LatencyHistogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * end-to-end load harness. Boots the application on a random port
+ * against an in-memory H2 database in PostgreSQL mode, so it runs
+ * without any external service, registers seed users, then keeps
+ * concurrency requests in flight for the given duration, a mix of
+ * POST /v1/register of new users and GET /v1/users/{id} of seed users.
+ * Reports throughput, latency percentiles and error rate per request
+ * type. After mvn test-compile:
+ * java -cp target/test-classes:target/classes:<test classpath>
+ *   com.demo.test.benchmark.LoadHarness [concurrency] [seconds] [register percent]
+ */
+public class LoadHarness {
+
+  private static final Pattern ID = Pattern.compile("/v1/users/(\\d+)");
+  private static final int SEED_USERS = 100;
+  private static final String USER = "{\"firstName\":\"waqas\",\"lastName\":\"imtiaz\",\"dateOfBirth\":\"10-10-1985\","
+      + "\"password\":\"******\",\"email\":\"%s\",\"sex\":\"MALE\",\"country\":\"france\","
+      + "\"phoneNumber\":\"0981797848\"}";
+
+  public static void main(String[] args) throws Exception {
+    int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+    int registerPercent = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+    // command line arguments, they take precedence over application.properties
+    SpringApplicationBuilder builder = new SpringApplicationBuilder(TestApplication.class);
+    String[] properties = {
+        "--server.port=0",
+        "--spring.datasource.url=jdbc:h2:mem:load;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "--spring.datasource.driverClassName=org.h2.Driver",
+        "--spring.datasource.username=sa",
+        "--spring.datasource.password=",
+        "--spring.datasource.platform=h2",
+        "--spring.flyway.enabled=false",
+        "--spring.jpa.hibernate.ddl-auto=create",
+        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"};
+    try (ConfigurableApplicationContext context = builder.run(properties)) {
+      run("h2", baseUri(context), concurrency, seconds, registerPercent);
+    }
+  }
+
+  static String baseUri(ConfigurableApplicationContext context) {
+    return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+  }
+
+  /**
+   * seeds the users, warms up for a fifth of the duration,
+   * then measures and prints one line per request type
+   * @param label printed in front of the results
+   */
+  static void run(String label, String baseUri, int concurrency, int seconds, int registerPercent)
+      throws IOException, InterruptedException {
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < SEED_USERS; i++) {
+      Matcher matcher = ID.matcher(client.send(register(baseUri), HttpResponse.BodyHandlers.ofString()).body());
+      if (matcher.find()) {
+        ids.add(Long.parseLong(matcher.group(1)));
+      }
+    }
+    if (ids.isEmpty()) {
+      throw new IllegalStateException("No seed user could be registered");
+    }
+
+    new Load(client, baseUri, ids, registerPercent).run(concurrency, Math.max(1, seconds / 5));
+    Load load = new Load(client, baseUri, ids, registerPercent);
+    long elapsed = load.run(concurrency, seconds);
+
+    System.out.printf("%s: %d in flight, %d%% registrations, %ds%n", label, concurrency, registerPercent, seconds);
+    print("  register", load.registerHistogram.snapshot(), load.registerErrors.sum(), elapsed);
+    print("  get     ", load.getHistogram.snapshot(), load.getErrors.sum(), elapsed);
+  }
+
+  private static void print(String type, LatencyHistogram.Snapshot snapshot, long errors, long elapsed) {
+    System.out.printf("%s: %d requests, %.0f requests/s, latency micros p50=%d p90=%d p99=%d p99.9=%d max=%d,"
+            + " errors=%d (%.2f%%)%n", type, snapshot.getCount(), snapshot.getCount() * 1e9 / elapsed,
+        snapshot.quantile(0.5), snapshot.quantile(0.9), snapshot.quantile(0.99), snapshot.quantile(0.999),
+        snapshot.getMax(), errors, snapshot.getCount() == 0 ? 0 : errors * 100.0 / snapshot.getCount());
+  }
+
+  private static HttpRequest register(String baseUri) {
+    String email = "load-" + UUID.randomUUID() + "@gmail.com";
+    return HttpRequest.newBuilder(URI.create(baseUri + "/v1/register"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(String.format(USER, email))).build();
+  }
+
+  /**
+   * closed loop load: every client sends its next
+   * request when the previous one completed
+   */
+  private static class Load {
+
+    private final HttpClient client;
+    private final String baseUri;
+    private final List<Long> ids;
+    private final int registerPercent;
+    private final LatencyHistogram registerHistogram = new LatencyHistogram();
+    private final LatencyHistogram getHistogram = new LatencyHistogram();
+    private final LongAdder registerErrors = new LongAdder();
+    private final LongAdder getErrors = new LongAdder();
+
+    Load(HttpClient client, String baseUri, List<Long> ids, int registerPercent) {
+      this.client = client;
+      this.baseUri = baseUri;
+      this.ids = ids;
+      this.registerPercent = registerPercent;
+    }
+
+    /**
+     * @return elapsed nanos
+     */
+    long run(int concurrency, int seconds) {
+      long start = System.nanoTime();
+      long deadline = start + seconds * 1_000_000_000L;
+      List<CompletableFuture<Void>> clients = new ArrayList<>();
+      for (int i = 0; i < concurrency; i++) {
+        clients.add(next(deadline));
+      }
+      CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).join();
+      return System.nanoTime() - start;
+    }
+
+    private CompletableFuture<Void> next(long deadline) {
+      if (System.nanoTime() >= deadline) {
+        return CompletableFuture.completedFuture(null);
+      }
+      boolean registration = ThreadLocalRandom.current().nextInt(100) < registerPercent;
+      HttpRequest request = registration ? register(baseUri) : HttpRequest.newBuilder(URI.create(baseUri
+          + "/v1/users/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size())))).GET().build();
+      LatencyHistogram histogram = registration ? registerHistogram : getHistogram;
+      LongAdder errors = registration ? registerErrors : getErrors;
+      long start = System.nanoTime();
+      return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+          .handle((response, exception) -> {
+            histogram.record((System.nanoTime() - start) / 1000);
+            if (exception != null || response.statusCode() >= 400) {
+              errors.increment();
+            }
+            return null;
+          })
+          .thenCompose(ignored -> next(deadline));
+    }
+  }
+}
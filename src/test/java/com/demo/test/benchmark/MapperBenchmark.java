@@ -0,0 +1,59 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.model.User;
+import com.demo.test.service.mapper.Mapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * dto to entity mapping done on every register and
+ * every read. Run with the benchmark profile:
+ * mvn -Pbenchmark verify -Dbenchmark=MapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+  private Mapper mapper;
+  private UserDto userDto;
+  private User user;
+
+  @Setup
+  public void setUp() {
+    mapper = new Mapper("dd-MM-yyyy");
+    userDto = BenchmarkData.userDto();
+    user = mapper.toUser(userDto);
+    user.setId(42L);
+  }
+
+  @Benchmark
+  public User toUser() {
+    return mapper.toUser(userDto);
+  }
+
+  @Benchmark
+  public UserDto toUserDto() {
+    return mapper.toUserDto(user);
+  }
+
+  @Benchmark
+  public LocalDate getDateOfBirth() {
+    return mapper.getDateOfBirth(userDto.getDateOfBirth());
+  }
+}
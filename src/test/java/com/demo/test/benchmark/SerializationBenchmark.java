@@ -0,0 +1,62 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.dto.ApiErrorDto;
+import com.demo.test.dto.ApiSuccessDto;
+import com.demo.test.exceptions.ApiErrorDtoSerializer;
+import com.demo.test.exceptions.Errors;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * response bodies written by the object mapper as
+ * configured by spring boot. Run with the benchmark profile:
+ * mvn -Pbenchmark verify -Dbenchmark=SerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  private ObjectMapper objectMapper;
+  private ApiSuccessDto apiSuccessDto;
+  private ApiErrorDto apiErrorDto;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json()
+        .serializerByType(ApiErrorDto.class, new ApiErrorDtoSerializer()).build();
+    apiSuccessDto = ApiSuccessDto.builder().object(BenchmarkData.userDto()).timeStamp("18-10-2026 10:00:00")
+        .status(HttpStatus.OK).resourceUri("/v1/users/42").build();
+    apiErrorDto = ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST).errorNumber(Errors.USER_DOEST_EXISTS)
+        .timeStamp("18-10-2026 10:00:00").messages(Collections.singletonList("User with id [42] does not exists"))
+        .debugMessage("User with id [42] does not exists").build();
+  }
+
+  @Benchmark
+  public byte[] apiSuccessDto() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(apiSuccessDto);
+  }
+
+  @Benchmark
+  public byte[] apiErrorDto() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(apiErrorDto);
+  }
+}
@@ -0,0 +1,58 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.TestApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * time to start the application, once per forked jvm so class
+ * loading and the jit are cold as for a new instance. update is
+ * the schema update of hibernate used before the migrations,
+ * validate the default, fast-start the fast-start profile.
+ * Needs the database of application.properties. Run with the
+ * benchmark profile:
+ * mvn -Pbenchmark verify -Dbenchmark=StartupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(15)
+public class StartupBenchmark {
+
+  @Param({"update", "validate", "fast-start"})
+  public String mode;
+
+  private ConfigurableApplicationContext context;
+
+  @Benchmark
+  public ConfigurableApplicationContext start() {
+    SpringApplicationBuilder builder = new SpringApplicationBuilder(TestApplication.class);
+    if ("fast-start".equals(mode)) {
+      builder.profiles("fast-start");
+    }
+    context = "update".equals(mode) ? builder.run("--server.port=0", "--spring.jpa.hibernate.ddl-auto=update")
+        : builder.run("--server.port=0");
+    return context;
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    context.close();
+  }
+}
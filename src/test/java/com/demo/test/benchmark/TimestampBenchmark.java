@@ -0,0 +1,56 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.service.timestamp.TimestampService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * response timestamps: formatting the current time on every
+ * call as the controller used to, and the timestamp service.
+ * After mvn test-compile:
+ * java -cp target/test-classes:target/classes:<test classpath>
+ *   org.openjdk.jmh.Main TimestampBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TimestampBenchmark {
+
+  private static final String PATTERN = "dd-MM-yyyy HH:mm:ss";
+
+  private DateTimeFormatter dateTimeFormatter;
+  private TimestampService timestampService;
+
+  @Setup
+  public void setUp() {
+    dateTimeFormatter = DateTimeFormatter.ofPattern(PATTERN);
+    timestampService = new TimestampService(PATTERN);
+  }
+
+  @Benchmark
+  public String formatPerCall() {
+    return LocalDateTime.now().format(dateTimeFormatter);
+  }
+
+  @Benchmark
+  public String timestampService() {
+    return timestampService.now();
+  }
+}
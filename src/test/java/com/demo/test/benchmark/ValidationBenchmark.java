@@ -0,0 +1,69 @@
+package com.demo.test.benchmark;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.service.validation.UserDtoValidator;
+import com.demo.test.service.validation.ValidationMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserDto validation by the bean validation annotations
+ * and by the character scans, of a valid and an invalid
+ * payload. Run with the benchmark profile:
+ * mvn -Pbenchmark verify -Dbenchmark=ValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+  @Param({"ANNOTATIONS", "SCAN"})
+  public ValidationMode validationMode;
+
+  private ValidatorFactory validatorFactory;
+  private UserDtoValidator userDtoValidator;
+  private UserDto validUserDto;
+  private UserDto invalidUserDto;
+
+  @Setup
+  public void setUp() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    userDtoValidator = new UserDtoValidator(validatorFactory.getValidator(), validationMode);
+    validUserDto = BenchmarkData.userDto();
+    invalidUserDto = BenchmarkData.invalidUserDto();
+  }
+
+  @TearDown
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<UserDto>> valid() {
+    return userDtoValidator.validate(validUserDto);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<UserDto>> invalid() {
+    return userDtoValidator.validate(invalidUserDto);
+  }
+}
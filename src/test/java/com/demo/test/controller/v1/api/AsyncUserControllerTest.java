@@ -0,0 +1,126 @@
+package com.demo.test.controller.v1.api;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.exceptions.UserExceptions;
+import com.demo.test.metrics.LatencyEndpoint;
+import com.demo.test.model.User;
+import com.demo.test.service.mapper.Mapper;
+import com.demo.test.service.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {"user.async.enabled=true", "user.async.timeout=200ms"})
+@AutoConfigureMockMvc
+class AsyncUserControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private LatencyEndpoint latencyEndpoint;
+
+  @Autowired
+  private AsyncUserController asyncUserController;
+
+  @Autowired
+  private Mapper mapper;
+
+  @Autowired
+  @MockBean
+  private UserService userService;
+
+  @Test
+  void getUser_whenFound_thenCompleteWithOkTest() throws Exception {
+    User user = getUser();
+    Mockito.when(userService.getUser(1L)).thenReturn(Optional.of(user));
+
+    ResponseEntity<Object> responseEntity = asyncUserController.getUser(1L, new MockHttpServletRequest()).get();
+
+    assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+  }
+
+  @Test
+  void getUser_whenNotFound_thenCompleteWithBadRequestExceptionTest() {
+    Mockito.when(userService.getUser(1L)).thenReturn(Optional.empty());
+
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> asyncUserController
+        .getUser(1L, new MockHttpServletRequest()).get());
+
+    assertTrue(exception.getCause() instanceof UserExceptions.BadRequestException);
+  }
+
+  @Test
+  void getUser_whenDatabaseTooSlow_thenCompleteWithTimeoutExceptionTest() {
+    Mockito.when(userService.getUser(1L)).thenAnswer(invocation -> {
+      Thread.sleep(1000);
+      return Optional.empty();
+    });
+
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> asyncUserController
+        .getUser(1L, new MockHttpServletRequest()).get());
+
+    assertTrue(exception.getCause() instanceof TimeoutException);
+  }
+
+  @Test
+  void registerUser_whenRegistered_thenCompleteWithCreatedTest() throws Exception {
+    UserDto userDto = getUserDto();
+    User user = getUser();
+    Mockito.when(userService.toUser(userDto)).thenReturn(user);
+    Mockito.when(userService.registerUser(user)).thenReturn(user);
+
+    ResponseEntity<Object> responseEntity = asyncUserController.registerUser(userDto, "v1",
+        new MockHttpServletRequest()).get();
+
+    assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
+  }
+
+  @Test
+  void getUser_whenDatabaseTooSlow_thenLatencyRecordedWithFinalStatusTest() throws Exception {
+    Mockito.when(userService.getUser(2L)).thenAnswer(invocation -> {
+      Thread.sleep(1000);
+      return Optional.empty();
+    });
+
+    MvcResult mvcResult = mockMvc.perform(get("/v1/users/2")).andReturn();
+    assertTrue(mvcResult.getRequest().isAsyncStarted());
+    assertFalse(latencyEndpoint.latencies().containsKey("GET /v1/users/{id} 200"));
+    int status = mockMvc.perform(asyncDispatch(mvcResult)).andReturn().getResponse().getStatus();
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), status);
+    Map<String, Object> latency = latencyEndpoint.latencies().get("GET /v1/users/{id} 503");
+    assertEquals(1L, latency.get("count"));
+    assertTrue((long) latency.get("maxMicros") >= 200_000L);
+    assertFalse(latencyEndpoint.latencies().containsKey("GET /v1/users/{id} 200"));
+  }
+
+  private User getUser() {
+    User user = mapper.toUser(getUserDto());
+    user.setId(1L);
+    return user;
+  }
+
+  private UserDto getUserDto() {
+    return UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email("waqas@gmail.com").sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+  }
+}
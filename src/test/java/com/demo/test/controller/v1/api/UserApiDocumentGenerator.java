@@ -0,0 +1,98 @@
+package com.demo.test.controller.v1.api;
+
+import com.demo.test.config.Swagger2Config;
+import com.demo.test.logging.PayloadLogger;
+import com.demo.test.service.user.UserImportService;
+import com.demo.test.service.user.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * writes the swagger document of UserController and its gzip
+ * variant, run by the openapi maven profile. The output is
+ * committed to src/main/resources/static/openapi:
+ *   mvn -Popenapi process-test-classes
+ * Only the controller and springfox are started, with mocked
+ * services, so no database is needed. The host is removed,
+ * clients use the host serving the document
+ */
+public class UserApiDocumentGenerator {
+
+  public static void main(String[] args) throws Exception {
+    Path json = Paths.get(args[0]);
+    byte[] document = generate();
+    Files.createDirectories(json.getParent());
+    Files.write(json, document);
+    try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(Paths.get(json + ".gz"))) {
+      {
+        def.setLevel(Deflater.BEST_COMPRESSION);
+      }
+    }) {
+      output.write(document);
+    }
+  }
+
+  static byte[] generate() throws Exception {
+    try (AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext()) {
+      context.setServletContext(new MockServletContext());
+      context.register(DocumentConfiguration.class);
+      context.refresh();
+      MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+      byte[] document = mockMvc.perform(get("/v2/api-docs")).andReturn().getResponse().getContentAsByteArray();
+      return withoutHost(document);
+    }
+  }
+
+  private static byte[] withoutHost(byte[] document) throws IOException {
+    ObjectMapper objectMapper = new ObjectMapper();
+    ObjectNode root = (ObjectNode) objectMapper.readTree(document);
+    root.remove("host");
+    return objectMapper.writeValueAsBytes(root);
+  }
+
+  // not a @Configuration, the component scan of the tests would pick it up
+  @EnableWebMvc
+  @PropertySource("classpath:application.properties")
+  @Import({Swagger2Config.class, UserController.class})
+  static class DocumentConfiguration {
+
+    @Bean
+    UserService userService() {
+      return Mockito.mock(UserService.class);
+    }
+
+    @Bean
+    UserImportService userImportService() {
+      return Mockito.mock(UserImportService.class);
+    }
+
+    @Bean
+    UserResponses userResponses() {
+      return Mockito.mock(UserResponses.class);
+    }
+
+    @Bean
+    PayloadLogger payloadLogger() {
+      return Mockito.mock(PayloadLogger.class);
+    }
+  }
+}
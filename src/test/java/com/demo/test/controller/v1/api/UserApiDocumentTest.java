@@ -0,0 +1,71 @@
+package com.demo.test.controller.v1.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = "springfox.documentation.enabled=false")
+@AutoConfigureMockMvc
+class UserApiDocumentTest {
+
+  private static final String DOCUMENT = "static/openapi/users.json";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void getDocument_whenGzipAccepted_thenServeCompressedVariantTest() throws Exception {
+    MockHttpServletResponse response = mockMvc.perform(get("/openapi/users.json")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn().getResponse();
+
+    assertEquals(200, response.getStatus());
+    assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    JsonNode document = objectMapper.readTree(new GZIPInputStream(new ByteArrayInputStream(
+        response.getContentAsByteArray())));
+    assertTrue(document.get("paths").has("/v1/users/{id}"));
+    assertFalse(document.has("host"));
+  }
+
+  @Test
+  void getDocument_whenGzipNotAccepted_thenServePlainDocumentTest() throws Exception {
+    MockHttpServletResponse response = mockMvc.perform(get("/openapi/users.json")).andReturn().getResponse();
+
+    assertEquals(200, response.getStatus());
+    assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    assertTrue(objectMapper.readTree(response.getContentAsByteArray()).get("paths").has("/v1/register"));
+  }
+
+  @Test
+  void generate_whenApiUnchanged_thenCommittedDocumentsCurrentTest() throws Exception {
+    JsonNode generated = objectMapper.readTree(UserApiDocumentGenerator.generate());
+    String regenerate = "stale document, run mvn -Popenapi process-test-classes";
+
+    try (InputStream json = new ClassPathResource(DOCUMENT).getInputStream();
+         InputStream gzip = new GZIPInputStream(new ClassPathResource(DOCUMENT + ".gz").getInputStream())) {
+      assertEquals(generated, objectMapper.readTree(json), regenerate);
+      assertEquals(generated, objectMapper.readTree(gzip), regenerate);
+    }
+  }
+
+  @Test
+  void getApiDocs_whenScanningDisabled_thenNotFoundTest() throws Exception {
+    assertEquals(404, mockMvc.perform(get("/v2/api-docs")).andReturn().getResponse().getStatus());
+  }
+}
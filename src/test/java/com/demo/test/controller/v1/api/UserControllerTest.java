@@ -1,11 +1,17 @@
 package com.demo.test.controller.v1.api;
 
 import com.demo.test.dto.ApiSuccessDto;
+import com.demo.test.dto.RegistrationResultDto;
 import com.demo.test.dto.UserDto;
+import com.demo.test.dto.UserSearchPageDto;
 import com.demo.test.exceptions.Errors;
 import com.demo.test.exceptions.UserExceptions;
+import com.demo.test.model.Sex;
 import com.demo.test.model.User;
+import com.demo.test.repository.UserSearchCriteria;
+import com.demo.test.repository.UserSummary;
 import com.demo.test.service.mapper.Mapper;
+import com.demo.test.service.user.RegistrationResult;
 import com.demo.test.service.user.UserService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -17,8 +23,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -176,6 +186,98 @@ class UserControllerTest {
     assertEquals(Errors.USER_REGISTRATION_FAILED, exception.getInternalError());
   }
 
+  @Test
+  void givenUsers_whenAllValid_thenReturnStatusCreatedTest() {
+    User waqas = getWaqas();
+    UserDto waqasDto = UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email("waqas@gmail.com").sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+
+    Mockito.when(userService.toUser(waqasDto)).thenReturn(waqas);
+    Mockito.when(userService.registerUsers(Collections.singletonList(waqas)))
+        .thenReturn(Collections.singletonList(RegistrationResult.registered(waqas)));
+    ResponseEntity<Object> actualResult = userController.registerUsers(Collections.singletonList(waqasDto), "v1");
+
+    assertEquals(HttpStatus.CREATED, actualResult.getStatusCode());
+  }
+
+  @Test
+  void givenUsers_whenOneInvalid_thenReturnMultiStatusWithConstraintViolationTest() {
+    User waqas = getWaqas();
+    UserDto waqasDto = UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email("waqas@gmail.com").sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+    UserDto invalidDto = UserDto.builder().firstName("").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email("imtiaz@gmail.com").sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+
+    Mockito.when(userService.toUser(waqasDto)).thenReturn(waqas);
+    Mockito.when(userService.registerUsers(Collections.singletonList(waqas)))
+        .thenReturn(Collections.singletonList(RegistrationResult.registered(waqas)));
+    ResponseEntity<Object> actualResult = userController.registerUsers(Arrays.asList(invalidDto, waqasDto), "v1");
+    List<RegistrationResultDto> results = (List<RegistrationResultDto>) ((ApiSuccessDto) actualResult.getBody())
+        .getObject();
+
+    assertEquals(HttpStatus.MULTI_STATUS, actualResult.getStatusCode());
+    assertEquals(Errors.CONSTRAINT_VIOLATION, results.get(0).getErrorNumber());
+    assertEquals(HttpStatus.CREATED, results.get(1).getStatus());
+  }
+
+  @Test
+  void givenUsers_whenEmpty_thenThrowBadRequestExceptionTest() {
+    UserExceptions.BadRequestException exception = assertThrows(UserExceptions.BadRequestException.class, () ->
+        userController.registerUsers(Collections.emptyList(), "v1"));
+
+    assertEquals(Errors.CONSTRAINT_VIOLATION, exception.getInternalError());
+  }
+
+  @Test
+  void givenSearch_whenPageFull_thenReturnNextAfterLastIdTest() {
+    UserSearchCriteria criteria = UserSearchCriteria.builder().country("France").sex(Sex.MALE)
+        .dateOfBirthFrom(LocalDate.of(1980, 1, 1)).locked(true).build();
+
+    Mockito.when(userService.searchUsers(criteria, 10L, 2)).thenReturn(Arrays.asList(getSummary(11),
+        getSummary(14)));
+    ResponseEntity<Object> actualResult = userController.searchUsers("France", "male", "01-01-1980", null, null,
+        true, 10L, 2);
+    UserSearchPageDto page = (UserSearchPageDto) ((ApiSuccessDto) actualResult.getBody()).getObject();
+
+    assertEquals(HttpStatus.OK, actualResult.getStatusCode());
+    assertEquals(2, page.getUsers().size());
+    assertEquals(14L, page.getNextAfter());
+    assertEquals("1985-10-10", page.getUsers().get(0).getDateOfBirth());
+  }
+
+  @Test
+  void givenSearch_whenLastPage_thenReturnNoNextAfterTest() {
+    Mockito.when(userService.searchUsers(UserSearchCriteria.builder().build(), 0L, 2))
+        .thenReturn(Collections.singletonList(getSummary(11)));
+    ResponseEntity<Object> actualResult = userController.searchUsers(null, null, null, null, null, null, 0L, 2);
+
+    assertNull(((UserSearchPageDto) ((ApiSuccessDto) actualResult.getBody()).getObject()).getNextAfter());
+  }
+
+  @Test
+  void givenSearch_whenSexInvalid_thenThrowBadRequestExceptionTest() {
+    UserExceptions.BadRequestException exception = assertThrows(UserExceptions.BadRequestException.class, () ->
+        userController.searchUsers(null, "unknown", null, null, null, null, 0L, 2));
+
+    assertEquals(Errors.CONSTRAINT_VIOLATION, exception.getInternalError());
+  }
+
+  @Test
+  void givenSearch_whenPageSizeAboveMax_thenThrowBadRequestExceptionTest() {
+    UserExceptions.BadRequestException exception = assertThrows(UserExceptions.BadRequestException.class, () ->
+        userController.searchUsers(null, null, null, null, null, null, 0L, 501));
+
+    assertEquals(Errors.CONSTRAINT_VIOLATION, exception.getInternalError());
+  }
+
+  private UserSummary getSummary(long id) {
+    return new UserSummary(id, "waqas", "imtiaz", "waqas" + id + "@gmail.com", LocalDate.of(1985, 10, 10), Sex.MALE,
+        "france", true, false);
+  }
+
   private User getWaqas() {
     UserDto waqasDto = UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
         .password("******").email("waqas@gmail.com").sex("MALE").country("france").phoneNumber("0981797848")
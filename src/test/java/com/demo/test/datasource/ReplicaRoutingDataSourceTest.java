@@ -0,0 +1,102 @@
+package com.demo.test.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+  private final DataSource primary = dataSource();
+  private final DataSource replica0 = dataSource();
+  private final DataSource replica1 = dataSource();
+  private final ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary,
+      Arrays.asList(replica0, replica1), ReplicaSelectionPolicy.ROUND_ROBIN, Duration.ofMinutes(1));
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  void getConnection_whenReadWrite_thenPrimaryTest() throws SQLException {
+    routingDataSource.getConnection();
+
+    Mockito.verify(primary).getConnection();
+    Mockito.verifyNoInteractions(replica0, replica1);
+  }
+
+  @Test
+  void getConnection_whenReadOnly_thenReplicasInTurnTest() throws SQLException {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    routingDataSource.getConnection();
+    routingDataSource.getConnection();
+    routingDataSource.getConnection();
+
+    Mockito.verify(replica0, Mockito.times(2)).getConnection();
+    Mockito.verify(replica1).getConnection();
+    Mockito.verifyNoInteractions(primary);
+  }
+
+  @Test
+  void getConnection_whenPrimaryForced_thenPrimaryTest() throws SQLException {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    DataSourceRouting.onPrimary(() -> {
+      try {
+        return routingDataSource.getConnection();
+      } catch (SQLException sqlException) {
+        throw new IllegalStateException(sqlException);
+      }
+    });
+
+    Mockito.verify(primary).getConnection();
+    Mockito.verifyNoInteractions(replica0, replica1);
+    assertFalse(DataSourceRouting.isPrimaryForced());
+  }
+
+  @Test
+  void getConnection_whenReplicaFails_thenNextReplicaAndSkippedAfterTest() throws SQLException {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    Mockito.when(replica0.getConnection()).thenThrow(new SQLException("connection refused"));
+
+    routingDataSource.getConnection();
+    routingDataSource.getConnection();
+    routingDataSource.getConnection();
+
+    Mockito.verify(replica0, Mockito.times(1)).getConnection();
+    Mockito.verify(replica1, Mockito.times(3)).getConnection();
+    Mockito.verifyNoInteractions(primary);
+  }
+
+  @Test
+  void getConnection_whenAllReplicasFail_thenPrimaryTest() throws SQLException {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    Mockito.when(replica0.getConnection()).thenThrow(new SQLException("connection refused"));
+    Mockito.when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+
+    Connection connection = routingDataSource.getConnection();
+
+    assertNotNull(connection);
+    Mockito.verify(primary).getConnection();
+  }
+
+  private static DataSource dataSource() {
+    DataSource dataSource = Mockito.mock(DataSource.class);
+    try {
+      Mockito.when(dataSource.getConnection()).thenReturn(Mockito.mock(Connection.class));
+    } catch (SQLException sqlException) {
+      throw new IllegalStateException(sqlException);
+    }
+    return dataSource;
+  }
+}
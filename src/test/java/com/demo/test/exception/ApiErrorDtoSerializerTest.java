@@ -0,0 +1,86 @@
+package com.demo.test.exception;
+
+import com.demo.test.dto.ApiErrorDto;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.exceptions.UserExceptions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * compares the serializer with the default bean serializer
+ * under the application's jackson settings, so a global
+ * naming or inclusion setting it ignores fails here
+ */
+@JsonTest
+class ApiErrorDtoSerializerTest {
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private ObjectMapper defaultObjectMapper;
+
+  @BeforeEach
+  void setUp() {
+    // same configuration, without the serializers registered by modules
+    defaultObjectMapper = objectMapper.copy().setSerializerFactory(BeanSerializerFactory.instance);
+  }
+
+  @Test
+  void serialize_whenSameCodeTwice_thenSameJsonAsDefaultSerializerTest() throws JsonProcessingException {
+    ApiErrorDto first = ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST).errorNumber(Errors.USER_DOEST_EXISTS)
+        .timeStamp("10-10-2020 10:10:10").messages(Collections.singletonList("User with id [1] does not exists"))
+        .debugMessage("User with id [1] does not exists").build();
+    ApiErrorDto second = ApiErrorDto.builder().status(HttpStatus.BAD_REQUEST).errorNumber(Errors.USER_DOEST_EXISTS)
+        .timeStamp("10-10-2020 10:10:11").messages(Arrays.asList("a \"quoted\" message", "second"))
+        .build();
+
+    assertEquals(defaultObjectMapper.writeValueAsString(first), objectMapper.writeValueAsString(first));
+    assertEquals(defaultObjectMapper.writeValueAsString(second), objectMapper.writeValueAsString(second));
+  }
+
+  @Test
+  void serialize_whenNullFields_thenSameJsonAsDefaultSerializerTest() throws JsonProcessingException {
+    ApiErrorDto apiErrorDto = ApiErrorDto.builder().errorNumber(Errors.UNKNOWN_INTERNAL_SERVER_ERROR).build();
+
+    assertEquals(defaultObjectMapper.writeValueAsString(apiErrorDto), objectMapper.writeValueAsString(apiErrorDto));
+  }
+
+  @Test
+  void serialize_whenPrettyPrinted_thenSameJsonAsDefaultSerializerTest() throws JsonProcessingException {
+    ApiErrorDto apiErrorDto = ApiErrorDto.builder().status(HttpStatus.INTERNAL_SERVER_ERROR)
+        .errorNumber(Errors.USER_REGISTRATION_FAILED).timeStamp("10-10-2020 10:10:10")
+        .messages(Collections.singletonList("User registration failed.")).build();
+
+    assertEquals(defaultObjectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(apiErrorDto),
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(apiErrorDto));
+  }
+
+  @Test
+  void givenBadRequestException_whenCreated_thenNoStackTrace() {
+    UserExceptions.BadRequestException badRequestException =
+        new UserExceptions.BadRequestException("message", Errors.UNDER_AGE);
+
+    assertEquals(0, badRequestException.getStackTrace().length);
+    assertEquals("message", badRequestException.getMessage());
+  }
+
+  @Test
+  void givenInternalServerException_whenStackTraceRequested_thenStackTraceCaptured() {
+    UserExceptions.InternalServerException internalServerException =
+        new UserExceptions.InternalServerException("message", Errors.UNKNOWN_INTERNAL_SERVER_ERROR, true);
+
+    assertTrue(internalServerException.getStackTrace().length > 0);
+  }
+}
@@ -20,6 +20,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
@@ -104,6 +105,19 @@ class RestExceptionHandlerTest {
     assertTrue(StringUtils.isNotBlank(((ApiErrorDto) Objects.requireNonNull(responseEntity.getBody())).getTimeStamp()));
   }
 
+  @Test
+  void givenInvalidBodyException_whenException_thenReturnMessagesWithoutDebugMessage() {
+    String message = "Invalid first name. Only characters are acceptable";
+    UserExceptions.InvalidBodyException invalidBodyException =
+        new UserExceptions.InvalidBodyException(getConstraintViolations(message));
+    ResponseEntity<Object> responseEntity = restExceptionHandler.handleInvalidBodyException(invalidBodyException);
+    ApiErrorDto apiErrorDto = (ApiErrorDto) Objects.requireNonNull(responseEntity.getBody());
+    assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+    assertEquals(Errors.CONSTRAINT_VIOLATION, apiErrorDto.getErrorNumber());
+    assertEquals(message, apiErrorDto.getMessages().get(0));
+    assertNull(apiErrorDto.getDebugMessage());
+  }
+
   @Test
   void givenException_whenNullPointerException_thenReturnBadRequestStatus() {
     ResponseEntity<Object> responseEntity = restExceptionHandler.handle(new NullPointerException(), null, null);
@@ -0,0 +1,91 @@
+package com.demo.test.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.async.EventRoute;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLogOverflowPolicyTest {
+
+  private static final long BACKGROUND_THREAD_ID = -1;
+
+  @Test
+  void getRoute_whenBlock_thenEnqueueEveryLevelTest() {
+    AsyncLogOverflowPolicy policy = new AsyncLogOverflowPolicy(AsyncLogOverflowPolicy.Policy.BLOCK, 10);
+    long dropped = AsyncLogOverflowPolicy.getDroppedCount();
+
+    assertEquals(EventRoute.ENQUEUE, policy.getRoute(BACKGROUND_THREAD_ID, Level.DEBUG));
+    assertEquals(EventRoute.ENQUEUE, policy.getRoute(BACKGROUND_THREAD_ID, Level.INFO));
+    assertEquals(EventRoute.ENQUEUE, policy.getRoute(BACKGROUND_THREAD_ID, Level.ERROR));
+    assertEquals(dropped, AsyncLogOverflowPolicy.getDroppedCount());
+  }
+
+  @Test
+  void getRoute_whenDrop_thenDiscardInfoAndCountItTest() {
+    AsyncLogOverflowPolicy policy = new AsyncLogOverflowPolicy(AsyncLogOverflowPolicy.Policy.DROP, 10);
+    long dropped = AsyncLogOverflowPolicy.getDroppedCount();
+
+    assertEquals(EventRoute.DISCARD, policy.getRoute(BACKGROUND_THREAD_ID, Level.INFO));
+    assertEquals(EventRoute.DISCARD, policy.getRoute(BACKGROUND_THREAD_ID, Level.DEBUG));
+    assertEquals(dropped + 2, AsyncLogOverflowPolicy.getDroppedCount());
+  }
+
+  @Test
+  void getRoute_whenDropAndWarnOrError_thenEnqueueTest() {
+    AsyncLogOverflowPolicy policy = new AsyncLogOverflowPolicy(AsyncLogOverflowPolicy.Policy.DROP, 10);
+
+    assertEquals(EventRoute.ENQUEUE, policy.getRoute(BACKGROUND_THREAD_ID, Level.WARN));
+    assertEquals(EventRoute.ENQUEUE, policy.getRoute(BACKGROUND_THREAD_ID, Level.ERROR));
+  }
+
+  @Test
+  void getRoute_whenSample_thenKeepOneEventEveryNTest() {
+    AsyncLogOverflowPolicy policy = new AsyncLogOverflowPolicy(AsyncLogOverflowPolicy.Policy.SAMPLE, 4);
+    long dropped = AsyncLogOverflowPolicy.getDroppedCount();
+
+    int enqueued = 0;
+    for (int i = 0; i < 100; i++) {
+      if (policy.getRoute(BACKGROUND_THREAD_ID, Level.INFO) == EventRoute.ENQUEUE) {
+        enqueued++;
+      }
+    }
+
+    assertEquals(25, enqueued);
+    assertEquals(dropped + 75, AsyncLogOverflowPolicy.getDroppedCount());
+  }
+
+  @Test
+  void getRoute_whenSampleFromManyThreads_thenKeepExactlyOneEventEveryNTest() throws InterruptedException {
+    AsyncLogOverflowPolicy policy = new AsyncLogOverflowPolicy(AsyncLogOverflowPolicy.Policy.SAMPLE, 4);
+    AtomicInteger enqueued = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          if (policy.getRoute(BACKGROUND_THREAD_ID, Level.INFO) == EventRoute.ENQUEUE) {
+            enqueued.incrementAndGet();
+          }
+        }
+      }));
+    }
+
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(20_000, enqueued.get());
+  }
+
+  @Test
+  void getRoute_whenBackgroundThread_thenSynchronousTest() {
+    AsyncLogOverflowPolicy policy = new AsyncLogOverflowPolicy(AsyncLogOverflowPolicy.Policy.DROP, 10);
+
+    assertEquals(EventRoute.SYNCHRONOUS, policy.getRoute(Thread.currentThread().getId(), Level.INFO));
+  }
+}
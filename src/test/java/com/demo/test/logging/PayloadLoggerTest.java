@@ -0,0 +1,90 @@
+package com.demo.test.logging;
+
+import com.demo.test.dto.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadLoggerTest {
+
+  private final PayloadLogger payloadLogger = new PayloadLogger(new ObjectMapper(), 0,
+      Collections.singletonMap("/v1/users/{id}", 1.0), 1.0, 200, Collections.singletonList("password"));
+
+  @Test
+  void format_whenMaskedField_thenValueReplacedTest() {
+    String json = payloadLogger.format(getUserDto("waqas"));
+
+    assertTrue(json.contains("\"password\":\"******\""));
+    assertFalse(json.contains("secret"));
+    assertTrue(json.contains("\"firstName\":\"waqas\""));
+  }
+
+  @Test
+  void format_whenMaskedFieldNested_thenValueReplacedTest() {
+    String json = payloadLogger.format(Collections.singletonList(getUserDto("waqas")));
+
+    assertTrue(json.contains("\"password\":\"******\""));
+    assertFalse(json.contains("secret"));
+  }
+
+  @Test
+  void format_whenPayloadTooLong_thenTruncatedTest() {
+    String json = payloadLogger.format(getUserDto(String.join("", Collections.nCopies(300, "a"))));
+
+    assertEquals(200 + "...(truncated)".length(), json.length());
+    assertTrue(json.endsWith("...(truncated)"));
+  }
+
+  @Test
+  void format_whenPayloadFarTooLong_thenSerializationStopsAtMaxLengthTest() {
+    AtomicInteger serialized = new AtomicInteger();
+    List<CountedValue> payload = Collections.nCopies(10_000, new CountedValue(serialized));
+    int elementLength = "{\"value\":\"x\"},".length();
+
+    String json = payloadLogger.format(payload);
+
+    assertEquals(200 + "...(truncated)".length(), json.length());
+    assertTrue(serialized.get() <= 200 / elementLength + 2, serialized.get() + " elements serialized");
+  }
+
+  @Test
+  void format_whenNull_thenNullTest() {
+    assertNull(payloadLogger.format(null));
+  }
+
+  @Test
+  void isSampled_whenError_thenAlwaysLoggedTest() {
+    assertTrue(payloadLogger.isSampled("/v1/register", true));
+  }
+
+  @Test
+  void isSampled_whenSuccess_thenEndpointRateOrDefaultRateTest() {
+    assertTrue(payloadLogger.isSampled("/v1/users/{id}", false));
+    assertFalse(payloadLogger.isSampled("/v1/register", false));
+  }
+
+  private UserDto getUserDto(String firstName) {
+    return UserDto.builder().firstName(firstName).lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("secret").email("waqas@gmail.com").sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+  }
+
+  static class CountedValue {
+
+    private final AtomicInteger serialized;
+
+    CountedValue(AtomicInteger serialized) {
+      this.serialized = serialized;
+    }
+
+    public String getValue() {
+      serialized.incrementAndGet();
+      return "x";
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.demo.test.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolHealthIndicatorTest {
+
+  private final MockClock clock = new MockClock();
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+  private final ConnectionPoolHealthIndicator healthIndicator =
+      new ConnectionPoolHealthIndicator(meterRegistry, Duration.ofMillis(100), 0.95, 10, Duration.ofSeconds(30));
+
+  @Test
+  void health_whenPoolNotStarted_thenUpTest() {
+    assertEquals(Status.UP, healthIndicator.health().getStatus());
+  }
+
+  @Test
+  void health_whenConnectionsAcquiredFast_thenUpTest() {
+    Timer acquire = acquireTimer();
+    for (int i = 0; i < 100; i++) {
+      acquire.record(Duration.ofMillis(1));
+    }
+
+    assertEquals(Status.UP, healthIndicator.health().getStatus());
+  }
+
+  @Test
+  void health_whenQuantileAboveMaxWait_thenOutOfServiceTest() {
+    Timer acquire = acquireTimer();
+    for (int i = 0; i < 90; i++) {
+      acquire.record(Duration.ofMillis(1));
+    }
+    for (int i = 0; i < 10; i++) {
+      acquire.record(Duration.ofMillis(500));
+    }
+    Gauge.builder("hikaricp.connections.pending", () -> 7).register(meterRegistry);
+
+    Health health = healthIndicator.health();
+
+    assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+    assertEquals(7L, health.getDetails().get("pending"));
+  }
+
+  @Test
+  void health_whenFewSlowAcquisitions_thenUpTest() {
+    Timer acquire = acquireTimer();
+    for (int i = 0; i < 99; i++) {
+      acquire.record(Duration.ofMillis(1));
+    }
+    acquire.record(Duration.ofMillis(500));
+
+    assertEquals(Status.UP, healthIndicator.health().getStatus());
+  }
+
+  @Test
+  void health_whenOneReplicaPoolSlow_thenOutOfServiceTest() {
+    Timer primary = acquireTimer("users-pool");
+    Timer replica = acquireTimer("users-pool-replica-0");
+    for (int i = 0; i < 100; i++) {
+      primary.record(Duration.ofMillis(1));
+      replica.record(Duration.ofMillis(500));
+    }
+    Gauge.builder("hikaricp.connections.active", () -> 3).tag("pool", "users-pool").register(meterRegistry);
+    Gauge.builder("hikaricp.connections.active", () -> 4).tag("pool", "users-pool-replica-0")
+        .register(meterRegistry);
+
+    Health health = healthIndicator.health();
+
+    assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+    assertEquals(7L, health.getDetails().get("active"));
+  }
+
+  @Test
+  void health_whenManyThreadsPending_thenOutOfServiceTest() {
+    Timer acquire = acquireTimer();
+    for (int i = 0; i < 100; i++) {
+      acquire.record(Duration.ofMillis(1));
+    }
+    Gauge.builder("hikaricp.connections.pending", () -> 11).tag("pool", "users-pool").register(meterRegistry);
+
+    Health health = healthIndicator.health();
+
+    assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+    assertEquals(11L, health.getDetails().get("pending"));
+  }
+
+  @Test
+  void health_whenTimeoutsWithinWindow_thenOutOfServiceForAnyCallerTest() {
+    Counter timeouts = timeoutCounter();
+    timeouts.increment(2);
+
+    Health first = healthIndicator.health();
+    Health second = healthIndicator.health();
+
+    assertEquals(Status.OUT_OF_SERVICE, first.getStatus());
+    assertEquals(Status.OUT_OF_SERVICE, second.getStatus());
+    assertEquals(2L, second.getDetails().get("recentTimeouts"));
+  }
+
+  @Test
+  void health_whenTimeoutsOlderThanWindow_thenUpTest() {
+    Counter timeouts = timeoutCounter();
+    timeouts.increment(2);
+    for (int i = 0; i < 3; i++) {
+      clock.add(Duration.ofSeconds(10));
+      assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+    }
+
+    clock.add(Duration.ofSeconds(10));
+    Health withoutNewTimeouts = healthIndicator.health();
+    timeouts.increment();
+    Health afterNewTimeout = healthIndicator.health();
+
+    assertEquals(Status.UP, withoutNewTimeouts.getStatus());
+    assertEquals(2L, withoutNewTimeouts.getDetails().get("timeouts"));
+    assertEquals(Status.OUT_OF_SERVICE, afterNewTimeout.getStatus());
+    assertEquals(1L, afterNewTimeout.getDetails().get("recentTimeouts"));
+  }
+
+  private Counter timeoutCounter() {
+    Timer acquire = acquireTimer();
+    for (int i = 0; i < 100; i++) {
+      acquire.record(Duration.ofMillis(1));
+    }
+    return Counter.builder("hikaricp.connections.timeout").tag("pool", "users-pool").register(meterRegistry);
+  }
+
+  private Timer acquireTimer() {
+    return acquireTimer("users-pool");
+  }
+
+  private Timer acquireTimer(String pool) {
+    return Timer.builder(ConnectionPoolHealthIndicator.ACQUIRE).tag("pool", pool)
+        .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry);
+  }
+}
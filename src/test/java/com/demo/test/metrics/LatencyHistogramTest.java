@@ -0,0 +1,65 @@
+package com.demo.test.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+  @Test
+  void index_whenValueInBucket_thenUpperBoundNotLowerThanValueTest() {
+    for (long value = 0; value < 1_000_000; value += 7) {
+      long upperBound = LatencyHistogram.upperBound(LatencyHistogram.index(value));
+      assertTrue(upperBound >= value, "value " + value);
+      assertTrue(upperBound <= value + value / 32 + 1, "value " + value);
+    }
+  }
+
+  @Test
+  void quantile_whenUniformValues_thenWithinBucketPrecisionTest() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 10_000; micros++) {
+      histogram.record(micros);
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    assertEquals(10_000, snapshot.getCount());
+    assertEquals(10_000, snapshot.getMax());
+    assertEquals(5_000, snapshot.quantile(0.5), 5_000 / 32.0);
+    assertEquals(9_900, snapshot.quantile(0.99), 9_900 / 32.0);
+    assertEquals(9_990, snapshot.quantile(0.999), 9_990 / 32.0);
+  }
+
+  @Test
+  void quantile_whenEmpty_thenZeroTest() {
+    assertEquals(0, new LatencyHistogram().snapshot().quantile(0.99));
+  }
+
+  @Test
+  void record_whenConcurrent_thenNoValueLostTest() throws Exception {
+    LatencyHistogram histogram = new LatencyHistogram();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int thread = 0; thread < 8; thread++) {
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 100_000; i++) {
+          histogram.record(i % 1000);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    assertEquals(800_000, histogram.snapshot().getCount());
+  }
+}
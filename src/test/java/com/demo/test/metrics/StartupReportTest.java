@@ -0,0 +1,52 @@
+package com.demo.test.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupReportTest {
+
+  private final BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+
+  @Test
+  void slowestBeans_whenBeanCreatesDependency_thenOwnTimeExcludesDependencyTest() throws InterruptedException {
+    StartupStep service = startBean("service");
+    Thread.sleep(20);
+    StartupStep repository = startBean("repository");
+    Thread.sleep(200);
+    repository.end();
+    service.end();
+
+    List<StartupReport.BeanTime> beans = StartupReport.slowestBeans(applicationStartup.getBufferedTimeline(), 10);
+
+    assertEquals(2, beans.size());
+    assertEquals("repository", beans.get(0).getBeanName());
+    assertEquals("service", beans.get(1).getBeanName());
+    assertTrue(beans.get(1).getTotalTime().toMillis() >= 220);
+    assertTrue(beans.get(1).getOwnTime().toMillis() < 200);
+  }
+
+  @Test
+  void slowestBeans_whenMoreBeansThanSize_thenKeepSlowestTest() throws InterruptedException {
+    for (int i = 1; i <= 3; i++) {
+      StartupStep bean = startBean("bean" + i);
+      Thread.sleep(i * 30);
+      bean.end();
+    }
+    applicationStartup.start("spring.context.refresh").end();
+
+    List<StartupReport.BeanTime> beans = StartupReport.slowestBeans(applicationStartup.getBufferedTimeline(), 2);
+
+    assertEquals(2, beans.size());
+    assertEquals("bean3", beans.get(0).getBeanName());
+    assertEquals("bean2", beans.get(1).getBeanName());
+  }
+
+  private StartupStep startBean(String beanName) {
+    return applicationStartup.start(StartupReport.BEAN_INSTANTIATE).tag("beanName", beanName);
+  }
+}
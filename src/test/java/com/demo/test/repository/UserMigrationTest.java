@@ -0,0 +1,79 @@
+package com.demo.test.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * migrates a schema holding the users table as the schema update
+ * of hibernate created it before the migrations, with ids from
+ * hibernate_sequence and no users_seq
+ */
+@SpringBootTest
+class UserMigrationTest {
+
+  private static final String SCHEMA = "users_baselined";
+  private static final int USERS = 120;
+  private static final int ALLOCATION_SIZE = 50;
+
+  @Autowired
+  private DataSource dataSource;
+
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void createSchema() {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+    jdbcTemplate.execute("create schema " + SCHEMA);
+    jdbcTemplate.execute("create sequence " + SCHEMA + ".hibernate_sequence start 1 increment 1");
+    jdbcTemplate.execute("create table " + SCHEMA + ".users (id bigint not null, country varchar(255) not null, "
+        + "date_of_birth date not null, email varchar(255) not null, enabled boolean not null, "
+        + "first_name varchar(255) not null, last_name varchar(255) not null, locked boolean not null, "
+        + "password varchar(255) not null, phone_number varchar(255), sex integer not null, "
+        + "constraint users_pkey primary key (id), constraint uk_6dotkott2kjsp8vw4d0m25fb7 unique (email))");
+    jdbcTemplate.execute("insert into " + SCHEMA + ".users select nextval('" + SCHEMA + ".hibernate_sequence'), "
+        + "'france', date '1985-10-10', 'user' || i || '@gmail.com', true, 'waqas', 'imtiaz', false, '******', "
+        + "null, 0 from generate_series(1, " + USERS + ") i");
+  }
+
+  @AfterEach
+  void dropSchema() {
+    jdbcTemplate.execute("drop schema " + SCHEMA + " cascade");
+  }
+
+  @Test
+  void migrate_whenBaselinedTableHasRows_thenFirstIdBlockAboveExistingIdsTest() {
+    migrate();
+
+    long next = jdbcTemplate.queryForObject("select nextval('" + SCHEMA + ".users_seq')", Long.class);
+
+    // the pooled optimizer hands out [next - 49, next]
+    assertTrue(next - ALLOCATION_SIZE + 1 > USERS, "first id block starts at " + (next - ALLOCATION_SIZE + 1));
+    assertEquals(next + ALLOCATION_SIZE,
+        jdbcTemplate.queryForObject("select nextval('" + SCHEMA + ".users_seq')", Long.class));
+  }
+
+  @Test
+  void migrate_whenSequenceAlreadyAhead_thenNotMovedBackTest() {
+    jdbcTemplate.execute("create sequence " + SCHEMA + ".users_seq start 1 increment 50");
+    jdbcTemplate.execute("select setval('" + SCHEMA + ".users_seq', 1001)");
+
+    migrate();
+
+    assertEquals(1051L, jdbcTemplate.queryForObject("select nextval('" + SCHEMA + ".users_seq')", Long.class));
+  }
+
+  private void migrate() {
+    Flyway.configure().dataSource(dataSource).schemas(SCHEMA).locations("classpath:db/migration/postgresql")
+        .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+  }
+}
@@ -0,0 +1,102 @@
+package com.demo.test.repository;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.model.User;
+import com.demo.test.service.mapper.Mapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * reads users back in new sessions against the database,
+ * they must be served by the second-level cache
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryCacheTest {
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private Mapper mapper;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private User user;
+
+  @BeforeEach
+  void saveUser() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    UserDto userDto = UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email(UUID.randomUUID() + "@gmail.com").sex("MALE").country("france")
+        .phoneNumber("0981797848").build();
+    user = userRepository.save(mapper.toUser(userDto));
+  }
+
+  @AfterEach
+  void deleteUser() {
+    userRepository.deleteById(user.getId());
+  }
+
+  @Test
+  void findById_whenUserRead_thenServedFromEntityCacheTest() {
+    long hits = region(User.REGION).getHitCount();
+
+    assertTrue(userRepository.findById(user.getId()).isPresent());
+    assertTrue(userRepository.findById(user.getId()).isPresent());
+
+    assertEquals(hits + 2, region(User.REGION).getHitCount());
+  }
+
+  @Test
+  void findByEmail_whenUserRead_thenServedFromNaturalIdCacheTest() {
+    userRepository.findByEmail(user.getEmail());
+    long naturalIdHits = region(User.EMAIL_REGION).getHitCount();
+    long queries = statistics.getNaturalIdQueryExecutionCount();
+
+    assertEquals(user.getId(), userRepository.findByEmail(user.getEmail()).getId());
+
+    assertEquals(naturalIdHits + 1, region(User.EMAIL_REGION).getHitCount());
+    assertEquals(queries, statistics.getNaturalIdQueryExecutionCount());
+  }
+
+  @Test
+  void findByIdGreaterThan_whenPageRead_thenNotPutInEntityCacheTest() {
+    entityManagerFactory.getCache().evict(User.class, user.getId());
+
+    assertEquals(user.getId(), userRepository.findByIdGreaterThanOrderByIdAsc(user.getId() - 1,
+        PageRequest.of(0, 1)).get(0).getId());
+
+    assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+  }
+
+  @Test
+  void findByEmail_whenEmailInOtherCase_thenReturnUserTest() {
+    assertEquals(user.getEmail(), user.getEmailNormalized());
+
+    assertEquals(user.getId(), userRepository.findByEmail(user.getEmail().toUpperCase()).getId());
+    assertTrue(userRepository.existsByEmailNormalized(user.getEmailNormalized()));
+  }
+
+  @Test
+  void findByEmail_whenEmailNotRegistered_thenNullTest() {
+    assertNull(userRepository.findByEmail(UUID.randomUUID() + "@gmail.com"));
+  }
+
+  private CacheRegionStatistics region(String region) {
+    return statistics.getDomainDataRegionStatistics(region);
+  }
+}
@@ -0,0 +1,153 @@
+package com.demo.test.repository;
+
+import com.demo.test.model.Sex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * searches a temporary copy of the users table, created with the
+ * indexes of the migrations. It hides the users table for the
+ * test transaction and is dropped when the transaction ends.
+ * User i is from luxembourg if i % 100 = 0, from belgium if
+ * i % 10 = 0, else from france, male if i is even, disabled if
+ * i % 20 = 0 and locked if i % 1000 = 0
+ */
+@SpringBootTest
+@Transactional
+class UserSearchTest {
+
+  /**
+   * users the email filter is sized for
+   */
+  private static final int TABLE_SIZE = 1_000_000;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @BeforeEach
+  void createTable() {
+    execute("create temporary table users (like public.users including all) on commit drop");
+  }
+
+  @Test
+  void search_whenCountryInAnyCase_thenPageByIdTest() {
+    insertUsers(1000);
+    UserSearchCriteria criteria = UserSearchCriteria.builder().country("LUXEMBOURG").sex(Sex.MALE).build();
+
+    assertEquals(Arrays.asList(100L, 200L, 300L), ids(userRepository.search(criteria, 0, 3)));
+    assertEquals(Arrays.asList(400L, 500L, 600L), ids(userRepository.search(criteria, 300, 3)));
+    assertEquals(Arrays.asList(700L, 800L, 900L, 1000L), ids(userRepository.search(criteria, 600, 10)));
+  }
+
+  @Test
+  void search_whenDateOfBirthRangeAndFlags_thenReturnMatchingUsersTest() {
+    insertUsers(1000);
+    LocalDate from = LocalDate.of(1970, 1, 1);
+    LocalDate to = LocalDate.of(1979, 12, 31);
+    UserSearchCriteria criteria = UserSearchCriteria.builder().dateOfBirthFrom(from).dateOfBirthTo(to)
+        .sex(Sex.FEMALE).enabled(true).locked(false).build();
+
+    List<Long> expected = expectedIds(1000, i -> i % 2 == 1 && i % 20 != 0 && i % 1000 != 0
+        && !dateOfBirth(i).isBefore(from) && !dateOfBirth(i).isAfter(to));
+    List<Long> found = new ArrayList<>();
+    List<UserSummary> page = userRepository.search(criteria, 0, 7);
+    while (!page.isEmpty()) {
+      found.addAll(ids(page));
+      page = userRepository.search(criteria, found.get(found.size() - 1), 7);
+    }
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, found);
+  }
+
+  @Test
+  void search_whenUserFound_thenReturnProjectedColumnsTest() {
+    insertUsers(1000);
+
+    UserSummary user = userRepository.search(UserSearchCriteria.builder().locked(true).build(), 0, 10).get(0);
+
+    assertEquals(new UserSummary(1000, "waqas", "imtiaz", "user1000@gmail.com", dateOfBirth(1000), Sex.MALE,
+        "Luxembourg", false, true), user);
+  }
+
+  // inserts TABLE_SIZE users, run with mvn -Pslow-tests test
+  @Test
+  @Tag("slow")
+  void search_whenTableFull_thenNoSequentialScanTest() {
+    insertUsers(TABLE_SIZE);
+    execute("analyze users");
+    List<UserSearchCriteria> searches = Arrays.asList(
+        UserSearchCriteria.builder().build(),
+        UserSearchCriteria.builder().country("germany").build(),
+        UserSearchCriteria.builder().country("luxembourg").build(),
+        UserSearchCriteria.builder().country("luxembourg").sex(Sex.FEMALE).build(),
+        UserSearchCriteria.builder().sex(Sex.MALE).enabled(true).locked(false).build(),
+        UserSearchCriteria.builder().locked(true).build(),
+        UserSearchCriteria.builder().locked(true).country("luxembourg").build(),
+        UserSearchCriteria.builder().enabled(false).country("luxembourg").build(),
+        UserSearchCriteria.builder().dateOfBirthFrom(LocalDate.of(1980, 1, 1))
+            .dateOfBirthTo(LocalDate.of(1980, 1, 7)).build(),
+        UserSearchCriteria.builder().dateOfBirthFrom(LocalDate.of(1980, 1, 1))
+            .dateOfBirthTo(LocalDate.of(1980, 1, 7)).sex(Sex.FEMALE).locked(false).build(),
+        UserSearchCriteria.builder().dateOfBirthFrom(LocalDate.of(2005, 6, 1)).build(),
+        UserSearchCriteria.builder().country("france").sex(Sex.MALE).dateOfBirthFrom(LocalDate.of(1960, 1, 1))
+            .dateOfBirthTo(LocalDate.of(1990, 12, 31)).enabled(true).locked(false).build());
+
+    for (UserSearchCriteria criteria : searches) {
+      for (long afterId : new long[]{0, TABLE_SIZE - 1000}) {
+        String plan = explain(UserSearchQuery.of(criteria, afterId, 50));
+        assertFalse(plan.contains("Seq Scan"), criteria + " after " + afterId + "\n" + plan);
+      }
+    }
+  }
+
+  private void insertUsers(int count) {
+    execute("insert into users (id, first_name, last_name, date_of_birth, email, email_normalized, password, sex,"
+        + " country, enabled, locked) select i, 'waqas', 'imtiaz', date '1940-01-01' + cast(i * 7919 % 23741 as int),"
+        + " 'user' || i || '@gmail.com', 'user' || i || '@gmail.com', '******', i % 2,"
+        + " case when i % 100 = 0 then 'Luxembourg' when i % 10 = 0 then 'belgium' else 'france' end,"
+        + " i % 20 <> 0, i % 1000 = 0 from generate_series(cast(1 as bigint), " + count + ") i");
+  }
+
+  private static LocalDate dateOfBirth(long i) {
+    return LocalDate.of(1940, 1, 1).plusDays(i * 7919 % 23741);
+  }
+
+  private static List<Long> expectedIds(int count, LongPredicate matches) {
+    return LongStream.rangeClosed(1, count).filter(matches).boxed().collect(Collectors.toList());
+  }
+
+  private static List<Long> ids(List<UserSummary> users) {
+    return users.stream().map(UserSummary::getId).collect(Collectors.toList());
+  }
+
+  @SuppressWarnings("unchecked")
+  private String explain(UserSearchQuery searchQuery) {
+    Query query = entityManager.createNativeQuery("explain " + searchQuery.getSql());
+    searchQuery.getParameters().forEach(query::setParameter);
+    return String.join("\n", (List<String>) query.getResultList());
+  }
+
+  private void execute(String sql) {
+    entityManager.createNativeQuery(sql).executeUpdate();
+  }
+}
@@ -0,0 +1,50 @@
+package com.demo.test.security;
+
+import com.demo.test.metrics.LatencyEndpoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StatsFilterTest {
+
+  @Autowired
+  private StatsFilter statsFilter;
+
+  @Autowired
+  private LatencyEndpoint latencyEndpoint;
+
+  @Test
+  void doFilter_whenRequestMapped_thenRecordedUnderPatternAndStatusTest() throws IOException, ServletException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/users/1");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/v1/users/{id}");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    response.setStatus(404);
+
+    statsFilter.doFilter(request, response, new MockFilterChain());
+    statsFilter.doFilter(request, response, new MockFilterChain());
+
+    Map<String, Object> latency = latencyEndpoint.latencies().get("GET /v1/users/{id} 404");
+    assertEquals(2L, latency.get("count"));
+    assertTrue(latency.containsKey("p999Micros"));
+  }
+
+  @Test
+  void doFilter_whenRequestNotMapped_thenRecordedAsUnmatchedTest() throws IOException, ServletException {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/unknown");
+
+    statsFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    assertTrue(latencyEndpoint.latencies().containsKey("POST UNMATCHED 200"));
+  }
+}
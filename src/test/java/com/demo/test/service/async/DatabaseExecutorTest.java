@@ -0,0 +1,53 @@
+package com.demo.test.service.async;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseExecutorTest {
+
+  @Test
+  void submit_whenQueueFull_thenRejectTest() throws Exception {
+    DatabaseExecutor databaseExecutor = new DatabaseExecutor(1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      CompletableFuture<Boolean> running = databaseExecutor.submit(() -> await(release));
+      CompletableFuture<Boolean> queued = databaseExecutor.submit(() -> await(release));
+
+      assertThrows(RejectedExecutionException.class, () -> databaseExecutor.submit(() -> true));
+
+      release.countDown();
+      assertTrue(running.get());
+      assertTrue(queued.get());
+    } finally {
+      release.countDown();
+      databaseExecutor.destroy();
+    }
+  }
+
+  @Test
+  void submit_whenCompleted_thenReturnResultTest() throws Exception {
+    DatabaseExecutor databaseExecutor = new DatabaseExecutor(2, 2, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    try {
+      assertEquals("result", databaseExecutor.submit(() -> "result").get());
+    } finally {
+      databaseExecutor.destroy();
+    }
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException interruptedException) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
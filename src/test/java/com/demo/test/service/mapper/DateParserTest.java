@@ -0,0 +1,80 @@
+package com.demo.test.service.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateParserTest {
+
+  private static final List<String> YEARS = Arrays.asList("0000", "0001", "1900", "1985", "2000", "2004", "2100",
+      "9999");
+
+  @Test
+  void parse_whenAnyDayMonthAndYear_thenSameAsDateTimeFormatterTest() {
+    assertSameAsFormatter("dd-MM-yyyy", dates("%s-%s-%s", false));
+  }
+
+  @Test
+  void parse_whenYearFirstPattern_thenSameAsDateTimeFormatterTest() {
+    assertSameAsFormatter("yyyy/MM/dd", dates("%3$s/%2$s/%1$s", false));
+  }
+
+  @Test
+  void parse_whenMalformed_thenSameAsDateTimeFormatterTest() {
+    List<String> inputs = new ArrayList<>(Arrays.asList("", "1-10-1985", "10-10-85", "10/10/1985", "10-10-1985 ",
+        "1a-10-1985", "10-10-198٣", "+10-10-1985", "10--10-1985", "10-10-19850"));
+    inputs.addAll(dates("%s-%s-%s", true));
+    assertSameAsFormatter("dd-MM-yyyy", inputs);
+  }
+
+  @Test
+  void parse_whenDayPastEndOfMonth_thenLastDayOfMonthTest() {
+    DateParser dateParser = DateParser.of("dd-MM-yyyy");
+
+    assertEquals(LocalDate.of(2004, 2, 29), dateParser.parse("31-02-2004"));
+    assertEquals(LocalDate.of(1900, 2, 28), dateParser.parse("29-02-1900"));
+  }
+
+  @Test
+  void of_whenPatternHasOtherFields_thenNullTest() {
+    assertNull(DateParser.of("d-M-yyyy"));
+    assertNull(DateParser.of("dd MMM yyyy"));
+    assertNull(DateParser.of("dd-MM-yy"));
+    assertNull(DateParser.of("dd-MM-yyyy HH:mm"));
+    assertNull(DateParser.of("'on' dd-MM-yyyy"));
+  }
+
+  private void assertSameAsFormatter(String pattern, List<String> inputs) {
+    DateParser dateParser = DateParser.of(pattern);
+    DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(pattern);
+    for (String input : inputs) {
+      LocalDate expected;
+      try {
+        expected = LocalDate.parse(input, dateTimeFormatter);
+      } catch (DateTimeParseException dateTimeParseException) {
+        expected = null;
+      }
+      assertEquals(expected, dateParser.parse(input), input);
+    }
+  }
+
+  private List<String> dates(String format, boolean withSeparatorChanged) {
+    List<String> dates = new ArrayList<>();
+    for (String year : YEARS) {
+      for (int month = 0; month < 20; month++) {
+        for (int day = 0; day < 40; day++) {
+          String date = String.format(format, String.format("%02d", day), String.format("%02d", month), year);
+          dates.add(withSeparatorChanged ? date.replace('-', '.') : date);
+        }
+      }
+    }
+    return dates;
+  }
+}
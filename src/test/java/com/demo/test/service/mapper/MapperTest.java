@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.LocalDate;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -22,4 +24,17 @@ class MapperTest {
         assertThrows(UserExceptions.BadRequestException.class, () -> mapper.getDateOfBirth("32-01-1980"));
     assertEquals(Errors.INPUT_DATE_FORMAT, badRequestException.getInternalError());
   }
+
+  @Test
+  void givenDateOfBirth_whenValid_thenReturnDate() {
+    assertEquals(LocalDate.of(1985, 10, 10), mapper.getDateOfBirth("10-10-1985"));
+  }
+
+  @Test
+  void givenDateOfBirth_whenOtherPattern_thenParsedWithFormatter() {
+    Mapper otherPatternMapper = new Mapper("d.M.yyyy");
+
+    assertEquals(LocalDate.of(1985, 10, 10), otherPatternMapper.getDateOfBirth("10.10.1985"));
+    assertThrows(UserExceptions.BadRequestException.class, () -> otherPatternMapper.getDateOfBirth("10-10-1985"));
+  }
 }
@@ -0,0 +1,77 @@
+package com.demo.test.service.timestamp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimestampServiceTest {
+
+  private static final long MILLIS = Instant.parse("2021-03-01T10:15:30.000Z").toEpochMilli();
+
+  private final MutableClock clock = new MutableClock(MILLIS);
+
+  @Test
+  void now_whenSameSecond_thenSameStringTest() {
+    TimestampService timestampService = new TimestampService("dd-MM-yyyy HH:mm:ss", clock);
+
+    String first = timestampService.now();
+    clock.millis = MILLIS + 999;
+
+    assertEquals("01-03-2021 10:15:30", first);
+    assertSame(first, timestampService.now());
+  }
+
+  @Test
+  void now_whenNextSecond_thenFormattedAgainTest() {
+    TimestampService timestampService = new TimestampService("dd-MM-yyyy HH:mm:ss", clock);
+
+    timestampService.now();
+    clock.millis = MILLIS + 1000;
+
+    assertEquals("01-03-2021 10:15:31", timestampService.now());
+  }
+
+  @Test
+  void now_whenPatternWithMillis_thenFormattedOnEveryCallTest() {
+    TimestampService timestampService = new TimestampService("HH:mm:ss.SSS", clock);
+
+    timestampService.now();
+    clock.millis = MILLIS + 250;
+
+    assertEquals("10:15:30.250", timestampService.now());
+  }
+
+  private static class MutableClock extends Clock {
+
+    private volatile long millis;
+
+    MutableClock(long millis) {
+      this.millis = millis;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long millis() {
+      return millis;
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.demo.test.service.user;
+
+import com.demo.test.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"user.email-filter.expected-insertions=1000", "user.email-filter.false-positive-rate=0.01"})
+class EmailFilterTest {
+
+  @Autowired
+  @MockBean
+  private UserRepository userRepository;
+
+  @Autowired
+  private EmailFilter emailFilter;
+
+  @Test
+  void rebuild_whenEmailsStreamed_thenAllMightBeContainedTest() {
+    Mockito.when(userRepository.streamAllEmails())
+        .thenReturn(IntStream.range(0, 1000).mapToObj(i -> "user" + i + "@gmail.com"));
+
+    emailFilter.rebuild();
+
+    assertTrue(IntStream.range(0, 1000).allMatch(i -> emailFilter.mightContain("user" + i + "@gmail.com")));
+  }
+
+  @Test
+  void mightContain_whenEmailNeverAdded_thenFalsePositiveRateBelowTargetTest() {
+    Mockito.when(userRepository.streamAllEmails())
+        .thenReturn(IntStream.range(0, 1000).mapToObj(i -> "user" + i + "@gmail.com"));
+
+    emailFilter.rebuild();
+    long falsePositives = IntStream.range(0, 10000)
+        .filter(i -> emailFilter.mightContain("other" + i + "@gmail.com")).count();
+
+    assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+  }
+
+  @Test
+  void put_whenEmailAdded_thenMightContainTest() {
+    Mockito.when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+
+    emailFilter.rebuild();
+    emailFilter.put("waqas@gmail.com");
+
+    assertTrue(emailFilter.mightContain("waqas@gmail.com"));
+    assertFalse(emailFilter.mightContain("imtiaz@gmail.com"));
+  }
+}
@@ -0,0 +1,105 @@
+package com.demo.test.service.user;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.exceptions.UserExceptions;
+import com.demo.test.model.User;
+import com.demo.test.repository.UserRepository;
+import com.demo.test.service.mapper.Mapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * registers the same emails from many threads at once
+ * against the database, exactly one registration per
+ * email must succeed and all others must be reported
+ * as already existing
+ */
+@SpringBootTest(properties = "user.registration.mode=optimistic")
+class RegistrationConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int EMAILS = 20;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private Mapper mapper;
+
+  private final List<String> emails = new ArrayList<>();
+
+  @AfterEach
+  void deleteUsers() {
+    emails.forEach(email -> {
+      User user = userRepository.findByEmail(email);
+      if (user != null) {
+        userRepository.delete(user);
+      }
+    });
+  }
+
+  @Test
+  void registerUser_whenSameEmailRegisteredConcurrently_thenOneSucceedsOthersAlreadyExistTest() throws Exception {
+    for (int i = 0; i < EMAILS; i++) {
+      emails.add("race-" + UUID.randomUUID() + "@gmail.com");
+    }
+    AtomicInteger registered = new AtomicInteger();
+    AtomicInteger alreadyExists = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> futures = new ArrayList<>();
+
+    try {
+      for (String email : emails) {
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < THREADS; i++) {
+          futures.add(executor.submit(() -> {
+            start.await();
+            try {
+              userService.registerUser(getUser(email));
+              registered.incrementAndGet();
+            } catch (UserExceptions.BadRequestException badRequestException) {
+              assertEquals(Errors.USER_ALREADY_EXISTS, badRequestException.getInternalError());
+              alreadyExists.incrementAndGet();
+            }
+            return null;
+          }));
+        }
+        start.countDown();
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(EMAILS, registered.get());
+    assertEquals(EMAILS * (THREADS - 1), alreadyExists.get());
+    emails.forEach(email -> assertNotNull(userRepository.findByEmail(email)));
+  }
+
+  private User getUser(String email) {
+    UserDto userDto = UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email(email).sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+    return mapper.toUser(userDto);
+  }
+}
@@ -0,0 +1,88 @@
+package com.demo.test.service.user;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.model.User;
+import com.demo.test.service.mapper.Mapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "user.export.page-size=2")
+class UserExportServiceTest {
+
+  @Autowired
+  @MockBean
+  private UserService userService;
+
+  @Autowired
+  private UserExportService userExportService;
+
+  @Autowired
+  private Mapper mapper;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void exportUsers_whenJson_thenWriteArrayOfAllPagesTest() throws IOException {
+    mockPages();
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    long exported = userExportService.exportUsers(output, false);
+
+    JsonNode users = objectMapper.readTree(output.toByteArray());
+    assertEquals(3, exported);
+    assertEquals(3, users.size());
+    assertEquals("c@gmail.com", users.get(2).get("email").asText());
+  }
+
+  @Test
+  void exportUsers_whenNdjson_thenWriteOneUserPerLineTest() throws IOException {
+    mockPages();
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    userExportService.exportUsers(output, true);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(3, lines.length);
+    assertEquals("a@gmail.com", objectMapper.readTree(lines[0]).get("email").asText());
+  }
+
+  @Test
+  void exportUsers_whenPageRead_thenNextPageStartsAfterLastIdTest() throws IOException {
+    mockPages();
+
+    userExportService.exportUsers(new ByteArrayOutputStream(), true);
+
+    Mockito.verify(userService).getUsersAfter(0L, 2);
+    Mockito.verify(userService).getUsersAfter(2L, 2);
+    Mockito.verify(userService, Mockito.never()).getUsersAfter(3L, 2);
+  }
+
+  private void mockPages() {
+    Mockito.when(userService.getUsersAfter(0L, 2)).thenReturn(Arrays.asList(getUser(1, "a@gmail.com"),
+        getUser(2, "b@gmail.com")));
+    Mockito.when(userService.getUsersAfter(2L, 2)).thenReturn(Collections.singletonList(getUser(3, "c@gmail.com")));
+  }
+
+  private User getUser(long id, String email) {
+    UserDto userDto = UserDto.builder().firstName("waqas").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email(email).sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+    User user = mapper.toUser(userDto);
+    user.setId(id);
+    return user;
+  }
+}
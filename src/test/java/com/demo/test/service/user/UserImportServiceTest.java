@@ -0,0 +1,122 @@
+package com.demo.test.service.user;
+
+import com.demo.test.dto.UserDto;
+import com.demo.test.exceptions.Errors;
+import com.demo.test.model.User;
+import com.demo.test.service.mapper.Mapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "user.import.chunk-size=2")
+class UserImportServiceTest {
+
+  private static final String WAQAS = "{\"firstName\":\"waqas\",\"lastName\":\"imtiaz\",\"dateOfBirth\":\"10-10-1985\","
+      + "\"password\":\"******\",\"email\":\"%s\",\"sex\":\"MALE\",\"country\":\"france\",\"phoneNumber\":\"0981797848\"}";
+
+  @Autowired
+  @MockBean
+  private UserService userService;
+
+  @Autowired
+  private UserImportService userImportService;
+
+  @Autowired
+  private Mapper mapper;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void importUsers_whenAllLinesValid_thenRegisterInChunksTest() throws IOException {
+    mockRegistration();
+    String input = String.join("\n", String.format(WAQAS, "a@gmail.com"), String.format(WAQAS, "b@gmail.com"),
+        String.format(WAQAS, "c@gmail.com"));
+
+    List<JsonNode> output = importUsers(input);
+
+    Mockito.verify(userService, Mockito.times(2)).registerUsers(ArgumentMatchers.anyList());
+    JsonNode summary = output.get(output.size() - 1);
+    assertTrue(summary.get("completed").asBoolean());
+    assertEquals(3, summary.get("registered").asLong());
+    assertEquals(0, summary.get("rejected").asLong());
+  }
+
+  @Test
+  void importUsers_whenLineInvalid_thenStreamErrorWithLineNumberTest() throws IOException {
+    mockRegistration();
+    String input = String.join("\n", String.format(WAQAS, "a@gmail.com"), "{not json", "",
+        String.format(WAQAS, "@gmail.com"));
+
+    List<JsonNode> output = importUsers(input);
+
+    assertEquals(2, output.get(0).get("index").asInt());
+    assertEquals(Errors.UNKNOWN_BAD_REQUEST, output.get(0).get("errorNumber").asInt());
+    assertEquals(4, output.get(1).get("index").asInt());
+    assertEquals(Errors.CONSTRAINT_VIOLATION, output.get(1).get("errorNumber").asInt());
+    JsonNode summary = output.get(output.size() - 1);
+    assertEquals(1, summary.get("registered").asLong());
+    assertEquals(2, summary.get("rejected").asLong());
+  }
+
+  @Test
+  void importUsers_whenLineTooLong_thenRejectItAndContinueTest() throws IOException {
+    mockRegistration();
+    String input = String.join("\n", "{\"firstName\":\"" + "x".repeat(20_000) + "\"}",
+        String.format(WAQAS, "a@gmail.com"));
+
+    List<JsonNode> output = importUsers(input);
+
+    assertEquals(1, output.get(0).get("index").asLong());
+    assertEquals("BAD_REQUEST", output.get(0).get("status").asText());
+    assertEquals(Errors.LINE_TOO_LONG, output.get(0).get("errorNumber").asInt());
+    JsonNode summary = output.get(output.size() - 1);
+    assertEquals(1, summary.get("registered").asLong());
+    assertEquals(1, summary.get("rejected").asLong());
+  }
+
+  @Test
+  void registerAll_whenUserInvalid_thenRejectWithoutRegisteringTest() {
+    UserDto invalidDto = UserDto.builder().firstName("").lastName("imtiaz").dateOfBirth("10-10-1985")
+        .password("******").email("waqas@gmail.com").sex("MALE").country("france").phoneNumber("0981797848")
+        .build();
+
+    List<RegistrationResult> results = userImportService.registerAll(List.of(invalidDto));
+
+    assertEquals(Errors.CONSTRAINT_VIOLATION, results.get(0).getInternalError());
+    Mockito.verify(userService, Mockito.never()).registerUsers(ArgumentMatchers.anyList());
+  }
+
+  private void mockRegistration() {
+    Mockito.when(userService.toUser(ArgumentMatchers.any(UserDto.class)))
+        .thenAnswer(invocation -> mapper.toUser(invocation.getArgument(0)));
+    Mockito.when(userService.registerUsers(ArgumentMatchers.anyList()))
+        .thenAnswer(invocation -> ((List<User>) invocation.getArgument(0)).stream()
+            .map(RegistrationResult::registered).collect(Collectors.toList()));
+  }
+
+  private List<JsonNode> importUsers(String input) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    userImportService.importUsers(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+    List<JsonNode> lines = new ArrayList<>();
+    for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+      lines.add(objectMapper.readTree(line));
+    }
+    return lines;
+  }
+}
@@ -1,19 +1,31 @@
 package com.demo.test.service.user;
 
+import com.demo.test.datasource.DataSourceRouting;
 import com.demo.test.dto.UserDto;
+import com.demo.test.exceptions.Errors;
 import com.demo.test.exceptions.UserExceptions;
 import com.demo.test.model.User;
 import com.demo.test.repository.UserRepository;
 import com.demo.test.service.mapper.Mapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,6 +42,18 @@ class UserServiceImplTest {
   @Autowired
   private Mapper mapper;
 
+  @Autowired
+  private UserCache userCache;
+
+  @Autowired
+  private EmailFilter emailFilter;
+
+  @BeforeEach
+  void clearCacheAndFilter() {
+    userCache.invalidateAll();
+    emailFilter.rebuild();
+  }
+
   @Test
   void getUser_whenUserExists_thenReturnUserTest() {
 
@@ -74,13 +98,27 @@ class UserServiceImplTest {
     User waqas = getWaqas();
     String expectedMessage = "Email [" + waqas.getEmail() + "] already exists.";
 
-    Mockito.when(userRepository.findByEmail(waqas.getEmail())).thenReturn(waqas);
+    emailFilter.put(waqas.getEmail());
+    Mockito.when(userRepository.existsByEmailNormalized(waqas.getEmail())).thenReturn(true);
 
     Exception exception = assertThrows(UserExceptions.BadRequestException.class, () -> userService.registerUser(waqas));
 
     assertTrue(exception.getMessage().contains(expectedMessage));
   }
 
+  @Test
+  void registerUser_whenEmailDiffersOnlyByCase_thenThrowUserAlreadyExistsTest() {
+    User waqas = getWaqas();
+    waqas.setEmail("Waqas@Gmail.com");
+
+    emailFilter.put("waqas@gmail.com");
+    Mockito.when(userRepository.existsByEmailNormalized("waqas@gmail.com")).thenReturn(true);
+    UserExceptions.BadRequestException exception = assertThrows(UserExceptions.BadRequestException.class, () ->
+        userService.registerUser(waqas));
+
+    assertEquals(Errors.USER_ALREADY_EXISTS, exception.getInternalError());
+  }
+
   // pay attention here age should be <= 18
   @Test
   void registerUser_whenUserNotExistsAndIsAdult_thenCreateUserTest() {
@@ -106,6 +144,213 @@ class UserServiceImplTest {
     assertTrue(exception.getMessage().contains(expectedMessage));
   }
 
+  @Test
+  void registerUsers_whenAllUsersValid_thenRegisterAllTest() {
+    User waqas = getWaqas();
+    User imtiaz = getWaqas();
+    imtiaz.setEmail("imtiaz@gmail.com");
+
+    Mockito.when(userRepository.findExistingEmails(Mockito.anySet())).thenReturn(Collections.emptySet());
+    List<RegistrationResult> results = userService.registerUsers(Arrays.asList(waqas, imtiaz));
+
+    assertTrue(results.stream().allMatch(RegistrationResult::isRegistered));
+    Mockito.verify(userRepository).saveAll(Arrays.asList(waqas, imtiaz));
+  }
+
+  @Test
+  void registerUsers_whenEmailExists_thenRejectWithUserAlreadyExistsTest() {
+    User waqas = getWaqas();
+
+    emailFilter.put(waqas.getEmail());
+    Mockito.when(userRepository.findExistingEmails(Mockito.anySet()))
+        .thenReturn(Collections.singleton(waqas.getEmail()));
+    List<RegistrationResult> results = userService.registerUsers(Collections.singletonList(waqas));
+
+    assertFalse(results.get(0).isRegistered());
+    assertEquals(Errors.USER_ALREADY_EXISTS, results.get(0).getInternalError());
+  }
+
+  @Test
+  void registerUsers_whenEmailRepeatedInBatch_thenRejectSecondTest() {
+    User waqas = getWaqas();
+    User duplicate = getWaqas();
+
+    Mockito.when(userRepository.findExistingEmails(Mockito.anySet())).thenReturn(Collections.emptySet());
+    List<RegistrationResult> results = userService.registerUsers(Arrays.asList(waqas, duplicate));
+
+    assertTrue(results.get(0).isRegistered());
+    assertEquals(Errors.USER_ALREADY_EXISTS, results.get(1).getInternalError());
+  }
+
+  @Test
+  void registerUsers_whenEmailRepeatedInOtherCase_thenRejectSecondTest() {
+    User waqas = getWaqas();
+    User duplicate = getWaqas();
+    duplicate.setEmail("WAQAS@gmail.com");
+
+    Mockito.when(userRepository.findExistingEmails(Mockito.anySet())).thenReturn(Collections.emptySet());
+    List<RegistrationResult> results = userService.registerUsers(Arrays.asList(waqas, duplicate));
+
+    assertTrue(results.get(0).isRegistered());
+    assertEquals(Errors.USER_ALREADY_EXISTS, results.get(1).getInternalError());
+  }
+
+  @Test
+  void registerUsers_whenUserNotAdult_thenRejectWithUnderAgeTest() {
+    User waqas = getWaqas();
+    waqas.setDateOfBirth(LocalDate.of(2015, 1, 1));
+
+    Mockito.when(userRepository.findExistingEmails(Mockito.anySet())).thenReturn(Collections.emptySet());
+    List<RegistrationResult> results = userService.registerUsers(Collections.singletonList(waqas));
+
+    assertEquals(Errors.UNDER_AGE, results.get(0).getInternalError());
+  }
+
+  @Test
+  void getUser_whenUserCached_thenNotReadFromRepositoryTest() {
+    User waqas = getWaqas();
+
+    Mockito.when(userRepository.findById(0L)).thenReturn(Optional.of(waqas));
+    userService.getUser(0L);
+    userService.getUser(0L);
+
+    Mockito.verify(userRepository, Mockito.times(1)).findById(0L);
+  }
+
+  @Test
+  void getUser_whenUserNotExists_thenNotCachedTest() {
+    Mockito.when(userRepository.findById(0L)).thenReturn(Optional.empty());
+    userService.getUser(0L);
+    userService.getUser(0L);
+
+    Mockito.verify(userRepository, Mockito.times(2)).findById(0L);
+  }
+
+  @Test
+  void registerUser_whenUserRegistered_thenServedFromCacheTest() {
+    User waqas = getWaqas();
+
+    Mockito.when(userRepository.findByEmail(waqas.getEmail())).thenReturn(null);
+    Mockito.when(userRepository.save(waqas)).thenReturn(waqas);
+    userService.registerUser(waqas);
+
+    assertEquals(waqas, userService.getUser(waqas.getEmail()));
+    assertEquals(waqas, userService.getUser(waqas.getId()).get());
+    Mockito.verify(userRepository, Mockito.never()).findByEmail(waqas.getEmail());
+    Mockito.verify(userRepository, Mockito.never()).findById(waqas.getId());
+  }
+
+  @Test
+  void registerUser_whenEmailAbsentFromFilter_thenSkipLookupTest() {
+    User waqas = getWaqas();
+
+    Mockito.when(userRepository.save(waqas)).thenReturn(waqas);
+    userService.registerUser(waqas);
+
+    Mockito.verify(userRepository, Mockito.never()).findByEmail(waqas.getEmail());
+    assertTrue(emailFilter.mightContain(waqas.getEmail()));
+  }
+
+  @Test
+  void registerUsers_whenEmailsAbsentFromFilter_thenSkipExistingEmailsQueryTest() {
+    User waqas = getWaqas();
+
+    userService.registerUsers(Collections.singletonList(waqas));
+
+    Mockito.verify(userRepository, Mockito.never()).findExistingEmails(Mockito.anySet());
+  }
+
+  @Test
+  void registerUser_whenEmailRegisteredConcurrently_thenThrowUserAlreadyExistsTest() {
+    User waqas = getWaqas();
+
+    Mockito.when(userRepository.save(waqas)).thenReturn(waqas);
+    Mockito.doThrow(uniqueViolation(UserServiceImpl.EMAIL_UNIQUE_KEY)).when(userRepository).flush();
+    UserExceptions.BadRequestException exception = assertThrows(UserExceptions.BadRequestException.class, () ->
+        userService.registerUser(waqas));
+
+    assertEquals(Errors.USER_ALREADY_EXISTS, exception.getInternalError());
+  }
+
+  @Test
+  void registerUser_whenPrimaryKeyClash_thenRethrowTest() {
+    User waqas = getWaqas();
+
+    Mockito.when(userRepository.save(waqas)).thenReturn(waqas);
+    Mockito.doThrow(uniqueViolation("users_pkey")).when(userRepository).flush();
+
+    assertThrows(DataIntegrityViolationException.class, () -> userService.registerUser(waqas));
+  }
+
+  @Test
+  void registerUsers_whenBatchViolatesEmailKey_thenThrowUserAlreadyExistsTest() {
+    User waqas = getWaqas();
+    BatchUpdateException batchUpdateException = new BatchUpdateException("batch entry 0 failed", "23505", null);
+    batchUpdateException.setNextException(emailKeyViolation());
+
+    Mockito.doThrow(new DataIntegrityViolationException("duplicate key", batchUpdateException))
+        .when(userRepository).flush();
+    UserExceptions.BadRequestException exception = assertThrows(UserExceptions.BadRequestException.class, () ->
+        userService.registerUsers(Collections.singletonList(waqas)));
+
+    assertEquals(Errors.USER_ALREADY_EXISTS, exception.getInternalError());
+  }
+
+  @Test
+  void registerUser_whenOtherIntegrityViolation_thenRethrowTest() {
+    User waqas = getWaqas();
+
+    Mockito.when(userRepository.save(waqas)).thenReturn(waqas);
+    Mockito.doThrow(new DataIntegrityViolationException("not null",
+        new SQLException("null value in column violates not-null constraint", "23502")))
+        .when(userRepository).flush();
+
+    assertThrows(DataIntegrityViolationException.class, () -> userService.registerUser(waqas));
+  }
+
+  @Test
+  void registerUser_whenEmailMightExist_thenCheckWithExistsProjectionTest() {
+    User waqas = getWaqas();
+
+    emailFilter.put(waqas.getEmail());
+    Mockito.when(userRepository.save(waqas)).thenReturn(waqas);
+    userService.registerUser(waqas);
+
+    Mockito.verify(userRepository).existsByEmailNormalized(waqas.getEmail());
+    Mockito.verify(userRepository, Mockito.never()).findByEmail(waqas.getEmail());
+  }
+
+  @Test
+  void getUser_whenRecentlyRegistered_thenReadFromPrimaryTest() {
+    User waqas = getWaqas();
+    waqas.setId(41L);
+    AtomicBoolean primaryForced = new AtomicBoolean();
+
+    Mockito.when(userRepository.save(waqas)).thenReturn(waqas);
+    Mockito.when(userRepository.findById(41L)).thenAnswer(invocation -> {
+      primaryForced.set(DataSourceRouting.isPrimaryForced());
+      return Optional.of(waqas);
+    });
+    userService.registerUser(waqas);
+    userCache.invalidateAll();
+    userService.getUser(41L);
+
+    assertTrue(primaryForced.get());
+  }
+
+  @Test
+  void getUser_whenNotRecentlyWritten_thenReadFromReplicaTest() {
+    AtomicBoolean primaryForced = new AtomicBoolean(true);
+
+    Mockito.when(userRepository.findById(42L)).thenAnswer(invocation -> {
+      primaryForced.set(DataSourceRouting.isPrimaryForced());
+      return Optional.empty();
+    });
+    userService.getUser(42L);
+
+    assertFalse(primaryForced.get());
+  }
+
   private int calculateAge(LocalDate dateOfBirth) {
     return Period.between(dateOfBirth, LocalDate.now()).getYears();
   }
@@ -116,4 +361,17 @@ class UserServiceImplTest {
         .build();
     return mapper.toUser(waqasDto);
   }
+
+  private static DataIntegrityViolationException uniqueViolation(String constraint) {
+    return new DataIntegrityViolationException("duplicate key", psqlUniqueViolation(constraint));
+  }
+
+  private static PSQLException emailKeyViolation() {
+    return psqlUniqueViolation(UserServiceImpl.EMAIL_UNIQUE_KEY);
+  }
+
+  private static PSQLException psqlUniqueViolation(String constraint) {
+    return new PSQLException(new ServerErrorMessage(
+        "SERROR\0C23505\0Mduplicate key value violates unique constraint\0n" + constraint + "\0"));
+  }
 }
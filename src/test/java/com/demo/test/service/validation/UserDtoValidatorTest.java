@@ -0,0 +1,105 @@
+package com.demo.test.service.validation;
+
+import com.demo.test.dto.UserDto;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks that scanning and bean validation
+ * agree on any dto, valid or not
+ */
+class UserDtoValidatorTest {
+
+  // boundaries of the regexes: line terminators, non ascii letters, digits and case folding
+  private static final String CHARS = "aZ m@-.09 \t\n\r\u0085 é٣ſK";
+
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+  private final UserDtoValidator annotationValidator = new UserDtoValidator(validator, ValidationMode.ANNOTATIONS);
+  private final UserDtoValidator scanValidator = new UserDtoValidator(validator, ValidationMode.SCAN);
+
+  @Property(tries = 5000)
+  void validate_whenAnyUserDto_thenSameViolationsAsAnnotationsTest(@ForAll("userDtos") UserDto userDto) {
+    assertEquals(describe(annotationValidator.validate(userDto)), describe(scanValidator.validate(userDto)));
+  }
+
+  @Property(tries = 500)
+  void validate_whenValidUserDto_thenNoViolationTest(@ForAll("validUserDtos") UserDto userDto) {
+    assertTrue(annotationValidator.validate(userDto).isEmpty());
+    assertTrue(scanValidator.validate(userDto).isEmpty());
+  }
+
+  @Provide
+  Arbitrary<UserDto> userDtos() {
+    return Combinators.combine(
+        Arbitraries.oneOf(names(), text(35)).injectNull(0.05),
+        Arbitraries.oneOf(names(), text(35)).injectNull(0.05),
+        Arbitraries.oneOf(dates(), digitsAndDashes(), text(12)).injectNull(0.05),
+        Arbitraries.oneOf(emails(), text(105)).injectNull(0.05),
+        text(105).injectNull(0.05),
+        Arbitraries.oneOf(Arbitraries.of("male", "FEMALE", "Male", "femal", "male\n", "Kale"), text(7))
+            .injectNull(0.05),
+        Arbitraries.oneOf(Arbitraries.of("france", "FRANCE", "France ", "franſe"), text(7)).injectNull(0.05),
+        Arbitraries.oneOf(phoneNumbers(), digitsAndDashes(), text(22)).injectNull(0.05))
+        .as(this::toUserDto);
+  }
+
+  @Provide
+  Arbitrary<UserDto> validUserDtos() {
+    return Combinators.combine(names().filter(name -> name.length() <= 30 && !name.trim().isEmpty()),
+        names().filter(name -> name.length() <= 30 && !name.trim().isEmpty()), dates(),
+        emails().filter(email -> email.length() <= 100 && !email.startsWith("@") && !email.endsWith("@")),
+        Arbitraries.strings().alpha().ofMinLength(1).ofMaxLength(100), Arbitraries.of("male", "female", "MALE"),
+        Arbitraries.of("france", "France"), Arbitraries.oneOf(phoneNumbers(), Arbitraries.of("")))
+        .as(this::toUserDto);
+  }
+
+  private UserDto toUserDto(String firstName, String lastName, String dateOfBirth, String email, String password,
+                            String sex, String country, String phoneNumber) {
+    return UserDto.builder().firstName(firstName).lastName(lastName).dateOfBirth(dateOfBirth).email(email)
+        .password(password).sex(sex).country(country).phoneNumber(phoneNumber).build();
+  }
+
+  private Arbitrary<String> text(int maxLength) {
+    return Arbitraries.strings().withChars(CHARS.toCharArray()).ofMaxLength(maxLength);
+  }
+
+  private Arbitrary<String> names() {
+    return Arbitraries.strings().withCharRange('a', 'z').withCharRange('A', 'Z').withChars(' ')
+        .ofMinLength(1).ofMaxLength(32);
+  }
+
+  private Arbitrary<String> dates() {
+    return Arbitraries.strings().numeric().ofLength(8)
+        .map(digits -> digits.substring(0, 2) + "-" + digits.substring(2, 4) + "-" + digits.substring(4));
+  }
+
+  private Arbitrary<String> digitsAndDashes() {
+    return Arbitraries.strings().withChars("0123456789-٣\n").ofMinLength(9).ofMaxLength(11);
+  }
+
+  private Arbitrary<String> emails() {
+    return Combinators.combine(Arbitraries.strings().alpha().ofMaxLength(50),
+        Arbitraries.strings().alpha().ofMaxLength(50)).as((local, domain) -> local + "@" + domain);
+  }
+
+  private Arbitrary<String> phoneNumbers() {
+    return Arbitraries.strings().numeric().ofLength(10);
+  }
+
+  private Set<String> describe(Set<ConstraintViolation<UserDto>> violations) {
+    return violations.stream().map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+        .collect(Collectors.toSet());
+  }
+}